@@ -0,0 +1,54 @@
+package com.appsdeveloperblog.app.ws.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.appsdeveloperblog.app.ws.io.entity.AddressEntity;
+import com.appsdeveloperblog.app.ws.io.entity.UserEntity;
+import com.appsdeveloperblog.app.ws.security.AppProperties;
+
+final class BenchmarkData {
+
+	private BenchmarkData() {
+	}
+	
+	static AppProperties appProperties() {
+		AppProperties appProperties = new AppProperties();
+		ReflectionTestUtils.setField(appProperties, "env", new MockEnvironment().withProperty("tokenSecret", "tokensecret"));
+		return appProperties;
+	}
+	
+	static UserEntity userEntity(int addressCount) {
+		UserEntity userEntity = new UserEntity();
+		userEntity.setId(1L);
+		userEntity.setUserId("74ryryY1FFa74ryryY1FFa74ryryY1");
+		userEntity.setFirstName("First");
+		userEntity.setLastName("Last");
+		userEntity.setEmail("test@test.com");
+		userEntity.setEncryptedPassword("$2a$10$Kq1P0pVd2v8m8yQ7m3l4EuJ3x2Kz5Yh5Qk3dJ3f7nZ1m2v4b6c8d0");
+		
+		List<AddressEntity> addresses = new ArrayList<>();
+		for (int i = 0; i < addressCount; i++) {
+			addresses.add(addressEntity(userEntity, i));
+		}
+		userEntity.setAddresses(addresses);
+		
+		return userEntity;
+	}
+	
+	static AddressEntity addressEntity(UserEntity userEntity, int index) {
+		AddressEntity addressEntity = new AddressEntity();
+		addressEntity.setId(index + 1);
+		addressEntity.setAddressId("hhh123fsAkgeEEhhh123fsAkgeEE" + index);
+		addressEntity.setCity("Vancouver");
+		addressEntity.setCountry("Canada");
+		addressEntity.setStreetName("123 Street name");
+		addressEntity.setPostalCode("ABC123");
+		addressEntity.setType(index % 2 == 0 ? "shipping" : "billing");
+		addressEntity.setUserDetails(userEntity);
+		return addressEntity;
+	}
+}
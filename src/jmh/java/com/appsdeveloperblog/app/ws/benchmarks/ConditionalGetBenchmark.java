@@ -0,0 +1,124 @@
+package com.appsdeveloperblog.app.ws.benchmarks;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.Filter;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.appsdeveloperblog.app.ws.MobileAppWsApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Polling GET /users/{id} through the full filter chain on H2; a share of the polls carries the current ETag
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class ConditionalGetBenchmark {
+	
+	@Param({ "0", "90", "100" })
+	int notModifiedPercent;
+	
+	@Param({ "10" })
+	int addresses;
+	
+	ConfigurableApplicationContext context;
+	
+	MockMvc mockMvc;
+	
+	String userPath;
+	
+	String authorization;
+	
+	String eTag;
+	
+	@Setup
+	public void setUp() throws Exception {
+		context = new SpringApplicationBuilder(MobileAppWsApplication.class)
+				.run("--server.port=0", "--spring.datasource.url=jdbc:h2:mem:conditional", "--spring.datasource.username=sa",
+						"--bcryptStrength=4", "--spring.jpa.show-sql=false");
+		mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context)
+				.addFilters(context.getBean("springSecurityFilterChain", Filter.class))
+				.build();
+		
+		ObjectMapper objectMapper = context.getBean(ObjectMapper.class);
+		StringBuilder user = new StringBuilder("{\"firstName\":\"First\",\"lastName\":\"Last\",\"email\":\"user@test.com\","
+				+ "\"password\":\"password\",\"addresses\":[");
+		for (int i = 0; i < addresses; i++) {
+			if (i > 0) user.append(',');
+			user.append("{\"city\":\"Vancouver\",\"country\":\"Canada\",\"streetName\":\"123 Street name\",\"postalCode\":\"ABC123\",\"type\":\"billing\"}");
+		}
+		user.append("]}");
+		
+		JsonNode createdUser = objectMapper.readTree(mockMvc.perform(post("/users").contentType(MediaType.APPLICATION_JSON)
+				.accept(MediaType.APPLICATION_JSON).content(user.toString())).andReturn().getResponse().getContentAsString());
+		userPath = "/users/" + createdUser.get("userId").asText();
+		
+		authorization = mockMvc.perform(post("/users/login").content("{\"email\":\"user@test.com\",\"password\":\"password\"}"))
+				.andReturn().getResponse().getHeader(HttpHeaders.AUTHORIZATION);
+		eTag = mockMvc.perform(get(userPath).header(HttpHeaders.AUTHORIZATION, authorization).accept(MediaType.APPLICATION_JSON))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+	}
+	
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public int getUser(Responses responses) throws Exception {
+		boolean current = ThreadLocalRandom.current().nextInt(100) < notModifiedPercent;
+		
+		MockHttpServletResponse response = mockMvc.perform(get(userPath)
+				.header(HttpHeaders.AUTHORIZATION, authorization)
+				.header(HttpHeaders.IF_NONE_MATCH, current ? eTag : "\"-1\"")
+				.accept(MediaType.APPLICATION_JSON))
+				.andReturn().getResponse();
+		
+		if (response.getStatus() == 304) responses.notModified++;
+		else responses.ok++;
+		
+		return response.getContentLength();
+	}
+	
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class Responses {
+		public long notModified;
+		public long ok;
+		
+		@Setup(Level.Iteration)
+		public void reset() {
+			notModified = 0;
+			ok = 0;
+		}
+	}
+}
@@ -0,0 +1,69 @@
+package com.appsdeveloperblog.app.ws.benchmarks;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.appsdeveloperblog.app.ws.security.SecurityConstants;
+import com.appsdeveloperblog.app.ws.security.TokenCache;
+import com.appsdeveloperblog.app.ws.security.TokenSigningKey;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+	TokenSigningKey tokenSigningKey;
+	
+	TokenCache tokenCache;
+	
+	String token;
+	
+	@Setup
+	public void setUp() {
+		tokenSigningKey = new TokenSigningKey(BenchmarkData.appProperties(), event -> { });
+		tokenCache = new TokenCache(BenchmarkData.appProperties());
+		token = createToken();
+		
+		Claims claims = tokenSigningKey.parseClaims(token);
+		tokenCache.put(token, claims.getSubject(), claims.getExpiration());
+	}
+
+	// AuthenticationFilter.successfulAuthentication
+	@Benchmark
+	public String createToken() {
+		return Jwts.builder()
+				.setSubject("test@test.com")
+				.setExpiration(new Date(System.currentTimeMillis() + SecurityConstants.EXPIRATION_TIME))
+				.signWith(TokenSigningKey.SIGNATURE_ALGORITHM, tokenSigningKey.getKey())
+				.compact();
+	}
+	
+	// AuthorizationFilter.getAuthentication on a cache miss
+	@Benchmark
+	public String verifyToken() {
+		return tokenSigningKey.parseClaims(token).getSubject();
+	}
+	
+	// AuthorizationFilter.getAuthentication on a cache hit
+	@Benchmark
+	public String verifyToken_cached() {
+		return tokenCache.getSubject(token);
+	}
+}
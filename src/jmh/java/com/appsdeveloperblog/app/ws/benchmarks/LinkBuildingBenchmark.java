@@ -0,0 +1,115 @@
+package com.appsdeveloperblog.app.ws.benchmarks;
+
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.hateoas.Link;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.appsdeveloperblog.app.ws.ui.controllers.AddressLinks;
+import com.appsdeveloperblog.app.ws.ui.controllers.UserController;
+import com.appsdeveloperblog.app.ws.ui.model.response.AddressesRest;
+
+// Links of GET /users/{userId}/addresses/{addressId} and of each item of GET /users/{userId}/addresses
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LinkBuildingBenchmark {
+	
+	@Param({ "10" })
+	int addressCount;
+	
+	String userId = "034hhGIbGNp20ZeBiQTBmy";
+	
+	List<String> addressIds;
+	
+	AddressLinks addressLinks = new AddressLinks();
+	
+	@Setup
+	public void setUp() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/mobile-app-ws/users/" + userId + "/addresses");
+		request.setContextPath("/mobile-app-ws");
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+		
+		addressIds = new ArrayList<>(addressCount);
+		for (int i = 0; i < addressCount; i++) {
+			addressIds.add("034hhGIaHSL2VYN2KhTz" + i);
+		}
+	}
+	
+	@TearDown
+	public void tearDown() {
+		RequestContextHolder.resetRequestAttributes();
+	}
+
+	@Benchmark
+	public AddressesRest address_linkBuilder() {
+		return linkBuilder(addressIds.get(0));
+	}
+	
+	@Benchmark
+	public AddressesRest address_addressLinks() {
+		AddressesRest address = address(addressIds.get(0));
+		addressLinks.addLinks(address, userId);
+		return address;
+	}
+	
+	@Benchmark
+	public List<AddressesRest> addresses_linkBuilder() {
+		List<AddressesRest> addresses = new ArrayList<>(addressCount);
+		for (String addressId : addressIds) {
+			addresses.add(linkBuilder(addressId));
+		}
+		return addresses;
+	}
+	
+	@Benchmark
+	public List<AddressesRest> addresses_addressLinks() {
+		List<AddressesRest> addresses = new ArrayList<>(addressCount);
+		for (String addressId : addressIds) {
+			addresses.add(address(addressId));
+		}
+		addressLinks.addLinks(addresses, userId);
+		return addresses;
+	}
+	
+	// What UserController.getUserAddress did before AddressLinks
+	private AddressesRest linkBuilder(String addressId) {
+		Link addressLink = linkTo(methodOn(UserController.class).getUserAddress(userId, addressId, null)).withSelfRel();
+		Link userLink = linkTo(methodOn(UserController.class).getUser(userId, null)).withRel("user");
+		Link addressesLink = linkTo(UserController.class).slash(userId).slash("addresses").withRel("addresses");
+		
+		AddressesRest address = address(addressId);
+		address.add(addressLink);
+		address.add(userLink);
+		address.add(addressesLink);
+		return address;
+	}
+	
+	private static AddressesRest address(String addressId) {
+		AddressesRest address = new AddressesRest();
+		address.setAddressId(addressId);
+		return address;
+	}
+}
@@ -0,0 +1,125 @@
+package com.appsdeveloperblog.app.ws.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.BeanUtils;
+
+import com.appsdeveloperblog.app.ws.io.entity.AddressEntity;
+import com.appsdeveloperblog.app.ws.io.entity.UserEntity;
+import com.appsdeveloperblog.app.ws.shared.dto.AddressDto;
+import com.appsdeveloperblog.app.ws.shared.dto.UserDto;
+import com.appsdeveloperblog.app.ws.shared.mapper.DtoMapper;
+import com.appsdeveloperblog.app.ws.ui.model.response.UserRest;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappingBenchmark {
+
+	DtoMapper dtoMapper = new DtoMapper();
+	
+	ModelMapper sharedModelMapper = new ModelMapper();
+	
+	UserEntity userEntity;
+	
+	AddressEntity addressEntity;
+	
+	@Setup
+	public void setUp() {
+		userEntity = BenchmarkData.userEntity(2);
+		addressEntity = userEntity.getAddresses().get(0);
+	}
+
+	@Benchmark
+	public UserDto userEntityToDto_modelMapperPerCall() {
+		return new ModelMapper().map(userEntity, UserDto.class);
+	}
+	
+	@Benchmark
+	public UserDto userEntityToDto_sharedModelMapper() {
+		return sharedModelMapper.map(userEntity, UserDto.class);
+	}
+	
+	@Benchmark
+	public UserDto userEntityToDto_beanUtils() {
+		UserDto userDto = new UserDto();
+		BeanUtils.copyProperties(userEntity, userDto);
+		return userDto;
+	}
+	
+	@Benchmark
+	public UserDto userEntityToDto_dtoMapper() {
+		return dtoMapper.toUserDtoWithAddresses(userEntity);
+	}
+	
+	@Benchmark
+	public UserRest userEntityToRest_beanUtils() {
+		UserDto userDto = new UserDto();
+		BeanUtils.copyProperties(userEntity, userDto);
+		UserRest userRest = new UserRest();
+		BeanUtils.copyProperties(userDto, userRest);
+		return userRest;
+	}
+	
+	@Benchmark
+	public UserRest userEntityToRest_dtoMapper() {
+		return dtoMapper.toUserRest(dtoMapper.toUserDto(userEntity));
+	}
+	
+	@Benchmark
+	public AddressDto addressEntityToDto_modelMapperPerCall() {
+		return new ModelMapper().map(addressEntity, AddressDto.class);
+	}
+	
+	@Benchmark
+	public AddressDto addressEntityToDto_sharedModelMapper() {
+		return sharedModelMapper.map(addressEntity, AddressDto.class);
+	}
+	
+	@Benchmark
+	public AddressDto addressEntityToDto_beanUtils() {
+		AddressDto addressDto = new AddressDto();
+		BeanUtils.copyProperties(addressEntity, addressDto);
+		return addressDto;
+	}
+	
+	@Benchmark
+	public AddressDto addressEntityToDto_dtoMapper() {
+		return dtoMapper.toAddressDto(addressEntity);
+	}
+	
+	@Benchmark
+	public List<AddressDto> addressEntitiesToDto_modelMapperPerCall() {
+		ModelMapper modelMapper = new ModelMapper();
+		List<AddressDto> returnValue = new ArrayList<>();
+		for (AddressEntity address : userEntity.getAddresses()) {
+			returnValue.add(modelMapper.map(address, AddressDto.class));
+		}
+		return returnValue;
+	}
+	
+	@Benchmark
+	public List<AddressDto> addressEntitiesToDto_dtoMapper() {
+		List<AddressDto> returnValue = new ArrayList<>();
+		for (AddressEntity address : userEntity.getAddresses()) {
+			returnValue.add(dtoMapper.toAddressDto(address));
+		}
+		return returnValue;
+	}
+}
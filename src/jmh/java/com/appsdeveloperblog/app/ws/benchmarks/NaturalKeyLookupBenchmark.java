@@ -0,0 +1,100 @@
+package com.appsdeveloperblog.app.ws.benchmarks;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Lookups by natural key on H2, migrated to V1 (no indexes) or V2 (unique constraints)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class NaturalKeyLookupBenchmark {
+	
+	static final String SELECT_USER = "select id, email, email_verification_status, email_verification_token, "
+			+ "encrypted_password, first_name, last_name, user_id from users where ";
+	
+	@Param({ "1", "2" })
+	String schemaVersion;
+	
+	@Param({ "1000000" })
+	int rows;
+	
+	Connection connection;
+	
+	PreparedStatement findByEmail;
+	
+	PreparedStatement findByUserId;
+	
+	@Setup
+	public void setUp() throws SQLException {
+		String url = "jdbc:h2:mem:lookup" + schemaVersion + ";DB_CLOSE_DELAY=-1";
+		Flyway.configure().dataSource(url, "sa", "").target(schemaVersion).load().migrate();
+		
+		connection = DriverManager.getConnection(url, "sa", "");
+		connection.setAutoCommit(false);
+		try (PreparedStatement insert = connection.prepareStatement("insert into users (id, user_id, first_name, last_name, "
+				+ "email, encrypted_password, email_verification_status) values (?, ?, 'First', 'Last', ?, 'encPass', false)")) {
+			for (int i = 1; i <= rows; i++) {
+				insert.setLong(1, i);
+				insert.setString(2, "userId" + i);
+				insert.setString(3, "user" + i + "@test.com");
+				insert.addBatch();
+				if (i % 10000 == 0) insert.executeBatch();
+			}
+			insert.executeBatch();
+		}
+		connection.commit();
+		
+		findByEmail = connection.prepareStatement(SELECT_USER + "email = ?");
+		findByUserId = connection.prepareStatement(SELECT_USER + "user_id = ?");
+	}
+	
+	@TearDown
+	public void tearDown() throws SQLException {
+		connection.createStatement().execute("drop all objects");
+		connection.close();
+	}
+
+	@Benchmark
+	public long findByEmail() throws SQLException {
+		findByEmail.setString(1, "user" + randomRow() + "@test.com");
+		return firstId(findByEmail);
+	}
+	
+	@Benchmark
+	public long findByUserId() throws SQLException {
+		findByUserId.setString(1, "userId" + randomRow());
+		return firstId(findByUserId);
+	}
+	
+	private int randomRow() {
+		return ThreadLocalRandom.current().nextInt(rows) + 1;
+	}
+	
+	private static long firstId(PreparedStatement statement) throws SQLException {
+		try (ResultSet resultSet = statement.executeQuery()) {
+			return resultSet.next() ? resultSet.getLong(1) : -1;
+		}
+	}
+}
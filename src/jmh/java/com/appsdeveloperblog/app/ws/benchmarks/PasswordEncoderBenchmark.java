@@ -0,0 +1,64 @@
+package com.appsdeveloperblog.app.ws.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import com.appsdeveloperblog.app.ws.security.PooledBCryptPasswordEncoder;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class PasswordEncoderBenchmark {
+	
+	@Param({ "10", "12" })
+	int strength;
+
+	BCryptPasswordEncoder bCryptPasswordEncoder;
+	
+	PooledBCryptPasswordEncoder pooledPasswordEncoder;
+	
+	String encodedPassword;
+	
+	@Setup
+	public void setUp() {
+		bCryptPasswordEncoder = new BCryptPasswordEncoder(strength);
+		pooledPasswordEncoder = new PooledBCryptPasswordEncoder(strength, Runtime.getRuntime().availableProcessors(), 100);
+		encodedPassword = bCryptPasswordEncoder.encode("password");
+	}
+	
+	@TearDown
+	public void tearDown() {
+		pooledPasswordEncoder.destroy();
+	}
+
+	@Benchmark
+	public String encode() {
+		return bCryptPasswordEncoder.encode("password");
+	}
+	
+	@Benchmark
+	public boolean matches() {
+		return bCryptPasswordEncoder.matches("password", encodedPassword);
+	}
+	
+	@Benchmark
+	public boolean matches_pooled() {
+		return pooledPasswordEncoder.matches("password", encodedPassword);
+	}
+}
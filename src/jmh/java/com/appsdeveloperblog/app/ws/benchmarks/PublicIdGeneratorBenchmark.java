@@ -0,0 +1,52 @@
+package com.appsdeveloperblog.app.ws.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.appsdeveloperblog.app.ws.shared.utils.RandomStringIdGenerator;
+import com.appsdeveloperblog.app.ws.shared.utils.TimeOrderedIdGenerator;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PublicIdGeneratorBenchmark {
+
+	RandomStringIdGenerator randomStringIdGenerator = new RandomStringIdGenerator(30);
+	
+	TimeOrderedIdGenerator timeOrderedIdGenerator = new TimeOrderedIdGenerator();
+
+	@Benchmark
+	public String randomString() {
+		return randomStringIdGenerator.generate();
+	}
+	
+	@Benchmark
+	@Threads(8)
+	public String randomString_contended() {
+		return randomStringIdGenerator.generate();
+	}
+	
+	@Benchmark
+	public String timeOrdered() {
+		return timeOrderedIdGenerator.generate();
+	}
+	
+	@Benchmark
+	@Threads(8)
+	public String timeOrdered_contended() {
+		return timeOrderedIdGenerator.generate();
+	}
+}
@@ -0,0 +1,86 @@
+package com.appsdeveloperblog.app.ws.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.appsdeveloperblog.app.ws.MobileAppWsApplication;
+import com.appsdeveloperblog.app.ws.io.repositories.UserRepository;
+import com.appsdeveloperblog.app.ws.shared.dto.UserDto;
+import com.appsdeveloperblog.app.ws.shared.mapper.DtoMapper;
+
+// Loading a user with all of its addresses and mapping it, inside a read-only or a read-write transaction; run with -prof gc for allocation
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReadOnlyTransactionBenchmark {
+
+	static final String USER_ID = "benchmarkUserId";
+
+	@Param({ "true", "false" })
+	boolean readOnly;
+
+	@Param({ "1000" })
+	int addresses;
+
+	ConfigurableApplicationContext context;
+
+	TransactionTemplate transactionTemplate;
+
+	UserRepository userRepo;
+
+	DtoMapper dtoMapper;
+
+	@Setup
+	public void setUp() {
+		context = new SpringApplicationBuilder(MobileAppWsApplication.class)
+				.run("--server.port=0", "--spring.datasource.url=jdbc:h2:mem:readonly", "--spring.datasource.username=sa",
+						"--bcryptStrength=4", "--spring.jpa.show-sql=false");
+
+		JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+		jdbcTemplate.update("insert into users (id, user_id, first_name, last_name, email, encrypted_password, "
+				+ "email_verification_status, version) values (1, ?, 'First', 'Last', 'user@test.com', 'encPass', true, 0)", USER_ID);
+		List<Object[]> rows = new ArrayList<>();
+		for (int i = 1; i <= addresses; i++) {
+			rows.add(new Object[] { i, "addressId" + i });
+		}
+		jdbcTemplate.batchUpdate("insert into addresses (id, address_id, city, country, street_name, postal_code, type, users_id) "
+				+ "values (?, ?, 'Vancouver', 'Canada', '123 Street name', 'ABC123', 'billing', 1)", rows);
+
+		transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+		transactionTemplate.setReadOnly(readOnly);
+		userRepo = context.getBean(UserRepository.class);
+		dtoMapper = context.getBean(DtoMapper.class);
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public UserDto getUserWithAddresses() {
+		return transactionTemplate.execute(status -> dtoMapper.toUserDtoWithAddresses(userRepo.findWithAddressesByUserId(USER_ID)));
+	}
+}
@@ -0,0 +1,106 @@
+package com.appsdeveloperblog.app.ws.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.appsdeveloperblog.app.ws.shared.mapper.DtoMapper;
+import com.appsdeveloperblog.app.ws.ui.model.response.AddressesRest;
+import com.appsdeveloperblog.app.ws.ui.model.response.UserRest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+	
+	@Param({ "2", "50" })
+	int addressCount;
+	
+	// One page of GET /users
+	@Param({ "25" })
+	int userCount;
+
+	ObjectMapper jsonMapper = Jackson2ObjectMapperBuilder.json().build();
+	
+	XmlMapper xmlMapper = Jackson2ObjectMapperBuilder.xml().build();
+	
+	UserRest userRest;
+	
+	List<AddressesRest> addresses;
+	
+	List<UserRest> users;
+	
+	@Setup
+	public void setUp() {
+		DtoMapper dtoMapper = new DtoMapper();
+		userRest = dtoMapper.toUserRest(dtoMapper.toUserDtoWithAddresses(BenchmarkData.userEntity(addressCount)));
+		addresses = userRest.getAddresses();
+		
+		users = new ArrayList<>(userCount);
+		for (int i = 0; i < userCount; i++) {
+			users.add(dtoMapper.toUserRest(dtoMapper.toUserDtoWithAddresses(BenchmarkData.userEntity(addressCount))));
+		}
+	}
+
+	@Benchmark
+	public byte[] userRest_json() throws JsonProcessingException {
+		return jsonMapper.writeValueAsBytes(userRest);
+	}
+	
+	@Benchmark
+	public byte[] userRest_xml() throws JsonProcessingException {
+		return xmlMapper.writeValueAsBytes(userRest);
+	}
+	
+	@Benchmark
+	public byte[] addresses_json() throws JsonProcessingException {
+		return jsonMapper.writeValueAsBytes(addresses);
+	}
+	
+	@Benchmark
+	public byte[] addresses_xml() throws JsonProcessingException {
+		return xmlMapper.writeValueAsBytes(addresses);
+	}
+	
+	@Benchmark
+	public byte[] users_json() throws JsonProcessingException {
+		return jsonMapper.writeValueAsBytes(users);
+	}
+	
+	@Benchmark
+	public byte[] users_xml() throws JsonProcessingException {
+		return xmlMapper.writeValueAsBytes(users);
+	}
+	
+	// What server.compression adds on top of users_json for responses above the size threshold
+	@Benchmark
+	public byte[] users_json_gzip() throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+			jsonMapper.writeValue(gzip, users);
+		}
+		return bytes.toByteArray();
+	}
+}
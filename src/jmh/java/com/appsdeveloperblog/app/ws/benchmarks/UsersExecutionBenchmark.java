@@ -0,0 +1,142 @@
+package com.appsdeveloperblog.app.ws.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+
+import com.appsdeveloperblog.app.ws.MobileAppWsApplication;
+
+// 2,000 clients, each on its own keep-alive connection, listing users over real HTTP against Tomcat and H2;
+// SampleTime reports p99, Throughput the requests per second. JDBC stays capped by maximumPoolSize in both modes.
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 5)
+@Measurement(iterations = 2, time = 10)
+@Threads(2000)
+@Fork(value = 1, jvmArgsAppend = { "-Dhttp.maxConnections=2000", "-Xss256k" })
+public class UsersExecutionBenchmark {
+	
+	@Param({ "servlet", "pool" })
+	String usersExecutionMode;
+	
+	@Param({ "10" })
+	int maximumPoolSize;
+	
+	@Param({ "100" })
+	int users;
+	
+	ConfigurableApplicationContext context;
+	
+	String usersUrl;
+	
+	String authorization;
+	
+	@Setup
+	public void setUp() throws Exception {
+		context = new SpringApplicationBuilder(MobileAppWsApplication.class)
+				.run("--server.port=0", "--spring.datasource.url=jdbc:h2:mem:execution", "--spring.datasource.username=sa",
+						"--bcryptStrength=4", "--spring.jpa.show-sql=false", "--logging.level.root=warn",
+						"--usersExecutionMode=" + usersExecutionMode,
+						"--spring.datasource.hikari.maximum-pool-size=" + maximumPoolSize);
+		
+		String baseUrl = "http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort()
+				+ context.getEnvironment().getProperty("server.servlet.context-path", "");
+		usersUrl = baseUrl + "/users?page=0&limit=25";
+		
+		for (int i = 0; i < users; i++) {
+			post(baseUrl + "/users", "{\"firstName\":\"First\",\"lastName\":\"Last\",\"email\":\"user" + i + "@test.com\","
+					+ "\"password\":\"password\",\"addresses\":[]}");
+		}
+		authorization = post(baseUrl + "/users/login", "{\"email\":\"user0@test.com\",\"password\":\"password\"}")
+				.getHeaderField(HttpHeaders.AUTHORIZATION);
+	}
+	
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public int getUsers(Responses responses) throws IOException {
+		HttpURLConnection connection = (HttpURLConnection) new URL(usersUrl).openConnection();
+		connection.setRequestProperty(HttpHeaders.AUTHORIZATION, authorization);
+		connection.setRequestProperty(HttpHeaders.ACCEPT, "application/json");
+		connection.setRequestProperty(HttpHeaders.ACCEPT_ENCODING, "identity");
+		
+		if (connection.getResponseCode() == 200) {
+			responses.ok++;
+			return drain(connection.getInputStream());
+		}
+		
+		responses.failed++;
+		return drain(connection.getErrorStream());
+	}
+	
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class Responses {
+		public long ok;
+		public long failed;
+		
+		@Setup(Level.Iteration)
+		public void reset() {
+			ok = 0;
+			failed = 0;
+		}
+	}
+	
+	private static HttpURLConnection post(String url, String body) throws IOException {
+		HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+		connection.setRequestMethod("POST");
+		connection.setDoOutput(true);
+		connection.setRequestProperty(HttpHeaders.CONTENT_TYPE, "application/json");
+		connection.setRequestProperty(HttpHeaders.ACCEPT, "application/json");
+		try (OutputStream out = connection.getOutputStream()) {
+			out.write(body.getBytes(StandardCharsets.UTF_8));
+		}
+		
+		if (connection.getResponseCode() != 200) throw new IllegalStateException(url + " returned " + connection.getResponseCode());
+		drain(connection.getInputStream());
+		return connection;
+	}
+	
+	// Reading to the end hands the connection back to the keep-alive cache
+	private static int drain(InputStream in) throws IOException {
+		if (in == null) return 0;
+		
+		try (InputStream body = in) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buffer = new byte[8192];
+			for (int read; (read = body.read(buffer)) != -1;) {
+				out.write(buffer, 0, read);
+			}
+			return out.size();
+		}
+	}
+}
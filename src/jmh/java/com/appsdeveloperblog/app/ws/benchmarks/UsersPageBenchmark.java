@@ -0,0 +1,81 @@
+package com.appsdeveloperblog.app.ws.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.appsdeveloperblog.app.ws.MobileAppWsApplication;
+import com.appsdeveloperblog.app.ws.service.UserService;
+import com.appsdeveloperblog.app.ws.shared.mapper.DtoMapper;
+import com.appsdeveloperblog.app.ws.ui.model.response.UserRest;
+
+// One page of GET /users below the controller: the service query plus the mapping to UserRest; run with -prof gc for allocation per page
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UsersPageBenchmark {
+
+	@Param({ "100" })
+	int limit;
+
+	@Param({ "1000" })
+	int users;
+
+	ConfigurableApplicationContext context;
+
+	UserService userService;
+
+	DtoMapper dtoMapper;
+
+	@Setup
+	public void setUp() {
+		context = new SpringApplicationBuilder(MobileAppWsApplication.class)
+				.run("--server.port=0", "--spring.datasource.url=jdbc:h2:mem:userspage", "--spring.datasource.username=sa",
+						"--bcryptStrength=4", "--spring.jpa.show-sql=false");
+
+		List<Object[]> rows = new ArrayList<>(users);
+		for (int i = 1; i <= users; i++) {
+			rows.add(new Object[] { i, "userId" + i, "user" + i + "@test.com" });
+		}
+		context.getBean(JdbcTemplate.class).batchUpdate("insert into users (id, user_id, first_name, last_name, email, "
+				+ "encrypted_password, email_verification_token, email_verification_status, version) values (?, ?, 'First', 'Last', ?, "
+				+ "'$2a$04$Kq1P0pVd2v8m8yQ7m3l4EuJ3x2Kz5Yh5Qk3dJ3f7nZ1m2v4b6c8d0', 'emailVerificationToken', true, 0)", rows);
+
+		userService = context.getBean(UserService.class);
+		dtoMapper = context.getBean(DtoMapper.class);
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public List<UserRest> offsetPage() {
+		return dtoMapper.toUserRest(userService.getUsers(1, limit));
+	}
+
+	@Benchmark
+	public List<UserRest> cursorPage() {
+		return dtoMapper.toUserRest(userService.getUsers("", limit).getUsers());
+	}
+}
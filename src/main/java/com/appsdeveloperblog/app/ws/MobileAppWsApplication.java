@@ -1,14 +1,46 @@
 package com.appsdeveloperblog.app.ws;
 
-import org.modelmapper.ModelMapper;
+import java.util.Properties;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcRegistrations;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.context.annotation.Bean;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.core.Ordered;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.ConcurrentTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.ContentNegotiationConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
 
+import com.appsdeveloperblog.app.ws.io.datasource.ReadReplicaRoutingDataSource;
+import com.appsdeveloperblog.app.ws.io.entity.PooledSequenceGenerator;
+import com.appsdeveloperblog.app.ws.io.migration.V3__PooledSequences;
+import com.appsdeveloperblog.app.ws.io.migration.V7__BaselineAlignment;
 import com.appsdeveloperblog.app.ws.security.AppProperties;
+import com.appsdeveloperblog.app.ws.security.PooledBCryptPasswordEncoder;
+import com.appsdeveloperblog.app.ws.shared.utils.PublicIdGenerator;
+import com.appsdeveloperblog.app.ws.shared.utils.TimeOrderedIdGenerator;
+import com.appsdeveloperblog.app.ws.ui.controllers.OffloadingHandlerAdapter;
+import com.appsdeveloperblog.app.ws.ui.controllers.UserController;
+import com.appsdeveloperblog.app.ws.ui.controllers.UsersExecutionMode;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
 
 @SpringBootApplication
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+@EnableScheduling
 public class MobileAppWsApplication {
 
 	public static void main(String[] args) {
@@ -16,8 +48,111 @@ public class MobileAppWsApplication {
 	}
 	
 	@Bean
-	public BCryptPasswordEncoder bCryptPasswowrdEncoder() {
-		return new BCryptPasswordEncoder();
+	public PooledBCryptPasswordEncoder bCryptPasswowrdEncoder(AppProperties appProperties) {
+		return new PooledBCryptPasswordEncoder(appProperties.getBcryptStrength(),
+				appProperties.getPasswordHashingThreads(),
+				appProperties.getPasswordHashingQueueCapacity());
+	}
+
+	@Bean
+	@ConfigurationProperties("spring.datasource.hikari")
+	public HikariConfig primaryPoolConfig(DataSourceProperties properties) {
+		HikariConfig config = new HikariConfig();
+		config.setJdbcUrl(properties.determineUrl());
+		config.setUsername(properties.determineUsername());
+		config.setPassword(properties.determinePassword());
+		config.setDriverClassName(properties.determineDriverClassName());
+		return config;
+	}
+	
+	// Starts from the primary's credentials and driver properties; anything under replica.datasource overrides them
+	@Bean
+	@ConditionalOnProperty("replica.datasource.jdbc-url")
+	@ConfigurationProperties("replica.datasource")
+	public HikariConfig replicaPoolConfig(HikariConfig primaryPoolConfig) {
+		HikariConfig config = new HikariConfig();
+		config.setPoolName("replica");
+		config.setUsername(primaryPoolConfig.getUsername());
+		config.setPassword(primaryPoolConfig.getPassword());
+		config.setDriverClassName(primaryPoolConfig.getDriverClassName());
+		// Its own copy, so replica.datasource.data-source-properties can never reach the primary pool
+		Properties dataSourceProperties = new Properties();
+		dataSourceProperties.putAll(primaryPoolConfig.getDataSourceProperties());
+		config.setDataSourceProperties(dataSourceProperties);
+		return config;
+	}
+	
+	// The pools are not beans of their own; the routing data source closes them and binds their metrics
+	@Bean
+	public ReadReplicaRoutingDataSource dataSource(HikariConfig primaryPoolConfig, @Qualifier("replicaPoolConfig") ObjectProvider<HikariConfig> replicaPoolConfig) {
+		HikariConfig replicaConfig = replicaPoolConfig.getIfAvailable();
+		
+		return new ReadReplicaRoutingDataSource(new HikariDataSource(primaryPoolConfig),
+				replicaConfig != null ? new HikariDataSource(replicaConfig) : null);
+	}
+
+	@Bean
+	public HibernatePropertiesCustomizer idAllocationSizeCustomizer(AppProperties appProperties) {
+		return properties -> properties.put(PooledSequenceGenerator.ALLOCATION_SIZE, appProperties.getIdAllocationSize());
+	}
+	
+	@Bean
+	public V3__PooledSequences pooledSequencesMigration(AppProperties appProperties) {
+		return new V3__PooledSequences(appProperties);
+	}
+	
+	@Bean
+	public V7__BaselineAlignment baselineAlignmentMigration() {
+		return new V7__BaselineAlignment();
+	}
+	
+	// Requests without an Accept header, or with */*, get the default type instead of the first one in produces;
+	// */* stays as the fallback so endpoints that cannot produce it, like /actuator/prometheus, still pick their own.
+	// Callable and StreamingResponseBody handlers run on usersTaskExecutor.
+	@Bean
+	public WebMvcConfigurer webMvcConfigurer(AppProperties appProperties, AsyncTaskExecutor usersTaskExecutor) {
+		return new WebMvcConfigurer() {
+			@Override
+			public void configureContentNegotiation(ContentNegotiationConfigurer configurer) {
+				configurer.defaultContentType(appProperties.getDefaultContentType(), MediaType.ALL);
+			}
+			
+			@Override
+			public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+				configurer.setTaskExecutor(usersTaskExecutor);
+			}
+		};
+	}
+	
+	// Blocking /users handlers run on this executor when usersExecutionMode is pool or virtual;
+	// either way at most spring.datasource.hikari.maximum-pool-size of them hold a connection
+	@Bean
+	public AsyncTaskExecutor usersTaskExecutor(AppProperties appProperties) {
+		if (appProperties.getUsersExecutionMode() == UsersExecutionMode.VIRTUAL) {
+			return new ConcurrentTaskExecutor(UsersExecutionMode.newVirtualThreadExecutor());
+		}
+		
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setCorePoolSize(appProperties.getUsersExecutionThreads());
+		executor.setMaxPoolSize(appProperties.getUsersExecutionThreads());
+		executor.setQueueCapacity(appProperties.getUsersExecutionQueueCapacity());
+		executor.setThreadNamePrefix("users-");
+		return executor;
+	}
+	
+	@Bean
+	public WebMvcRegistrations usersExecutionRegistrations(AppProperties appProperties) {
+		return new WebMvcRegistrations() {
+			@Override
+			public RequestMappingHandlerAdapter getRequestMappingHandlerAdapter() {
+				return appProperties.getUsersExecutionMode().isOffloaded() ? new OffloadingHandlerAdapter(UserController.class) : null;
+			}
+		};
+	}
+	
+	@Bean
+	public PublicIdGenerator publicIdGenerator() {
+		return new TimeOrderedIdGenerator();
 	}
 
 	@Bean
@@ -29,9 +164,4 @@ public class MobileAppWsApplication {
 	public AppProperties getAppProperties() {
 		return new AppProperties();
 	}
-	
-	@Bean
-	public ModelMapper modelMapper() {
-		return new ModelMapper();
-	}
 }
@@ -1,7 +1,9 @@
 package com.appsdeveloperblog.app.ws.exceptions;
 
 import java.util.Date;
+import java.util.concurrent.RejectedExecutionException;
 
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -10,9 +12,13 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
 
 import com.appsdeveloperblog.app.ws.ui.model.response.ErrorMessage;
+import com.appsdeveloperblog.app.ws.ui.model.response.ErrorMessages;
 
 @ControllerAdvice
 public class AppExceptionsHandler {
+	
+	// Seconds a client should wait before retrying when a bounded pool turned it away
+	public static final String RETRY_AFTER_SECONDS = "1";
 
 	// Handle multiple excpetions using one method by adding one more class of exception
 	@ExceptionHandler(value= {UserServiceException.class})
@@ -21,6 +27,26 @@ public class AppExceptionsHandler {
 		return new ResponseEntity<>(errorMsg, new HttpHeaders(), HttpStatus.INTERNAL_SERVER_ERROR);
 	}
 	
+	@ExceptionHandler(value= {InvalidRequestException.class})
+	public ResponseEntity<Object> handleInvalidRequestException(InvalidRequestException ex, WebRequest request) {
+		ErrorMessage errorMsg = new ErrorMessage(new Date(), ex.getMessage());
+		return new ResponseEntity<>(errorMsg, new HttpHeaders(), HttpStatus.BAD_REQUEST);
+	}
+	
+	@ExceptionHandler(value= {OptimisticLockingFailureException.class})
+	public ResponseEntity<Object> handleOptimisticLockingFailureException(OptimisticLockingFailureException ex, WebRequest request) {
+		ErrorMessage errorMsg = new ErrorMessage(new Date(), ErrorMessages.RECORD_MODIFIED.getErrorMessage());
+		return new ResponseEntity<>(errorMsg, new HttpHeaders(), HttpStatus.PRECONDITION_FAILED);
+	}
+	
+	@ExceptionHandler(value= {RejectedExecutionException.class})
+	public ResponseEntity<Object> handleRejectedExecutionException(RejectedExecutionException ex, WebRequest request) {
+		ErrorMessage errorMsg = new ErrorMessage(new Date(), ErrorMessages.SERVER_BUSY.getErrorMessage());
+		HttpHeaders headers = new HttpHeaders();
+		headers.set(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+		return new ResponseEntity<>(errorMsg, headers, HttpStatus.SERVICE_UNAVAILABLE);
+	}
+	
 	@ExceptionHandler(value= {Exception.class})
 	public ResponseEntity<Object> handleOtherExceptions(Exception ex, WebRequest request) {
 		ErrorMessage errorMsg = new ErrorMessage(new Date(), ex.getMessage());
@@ -0,0 +1,12 @@
+package com.appsdeveloperblog.app.ws.exceptions;
+
+// A request the service cannot act on as given; answered with 400 rather than 500
+public class InvalidRequestException extends UserServiceException {
+
+	private static final long serialVersionUID = -2265047812650183571L;
+
+	public InvalidRequestException(String message) {
+		super(message);
+	}
+
+}
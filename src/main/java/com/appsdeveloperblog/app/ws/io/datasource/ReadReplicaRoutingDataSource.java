@@ -0,0 +1,80 @@
+package com.appsdeveloperblog.app.ws.io.datasource;
+
+import java.io.Closeable;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+// Connections used inside a read-only transaction come from the replica pool, all others from the primary.
+// The transaction managers take their connection before the read-only flag is published, so the pool
+// is only picked when the lazy proxy opens the real connection for the first statement.
+public class ReadReplicaRoutingDataSource extends LazyConnectionDataSourceProxy implements Closeable, MeterBinder {
+	
+	enum Route { PRIMARY, REPLICA }
+	
+	private final HikariDataSource primary;
+	private final HikariDataSource replica;
+	
+	// Without a replica every connection comes from the primary
+	public ReadReplicaRoutingDataSource(HikariDataSource primary, HikariDataSource replica) {
+		super(new Router(primary, replica != null ? replica : primary));
+		this.primary = primary;
+		this.replica = replica;
+	}
+	
+	public HikariDataSource getPrimary() {
+		return primary;
+	}
+	
+	public HikariDataSource getReplica() {
+		return replica;
+	}
+
+	// Connection wait, usage and pool size as hikaricp.* meters, tagged with the pool name
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		bindTo(primary, registry);
+		if (replica != null) bindTo(replica, registry);
+	}
+	
+	private static void bindTo(HikariDataSource pool, MeterRegistry registry) {
+		if (pool.getMetricsTrackerFactory() == null && pool.getMetricRegistry() == null) {
+			pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+		}
+	}
+
+	@Override
+	public void close() {
+		if (replica != null) replica.close();
+		primary.close();
+	}
+	
+	private static class Router extends AbstractRoutingDataSource {
+		
+		Router(DataSource primary, DataSource replica) {
+			Map<Object, Object> targetDataSources = new HashMap<>();
+			targetDataSources.put(Route.PRIMARY, primary);
+			targetDataSources.put(Route.REPLICA, replica);
+			
+			setTargetDataSources(targetDataSources);
+			setDefaultTargetDataSource(primary);
+			afterPropertiesSet();
+		}
+
+		@Override
+		protected Object determineCurrentLookupKey() {
+			return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? Route.REPLICA : Route.PRIMARY;
+		}
+	}
+}
@@ -7,20 +7,31 @@ import javax.persistence.Entity;
 import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 @Entity(name="addresses")
+@Table(uniqueConstraints = @UniqueConstraint(name="uk_addresses_address_id", columnNames="addressId"),
+		indexes = @Index(name="ix_addresses_users_id", columnList="users_id"))
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 public class AddressEntity implements Serializable {
 
 	private static final long serialVersionUID = 7809200551672852690L;
 	
 	@Id
-	@GeneratedValue
+	@GeneratedValue(generator="addresses_seq")
+	@GenericGenerator(name="addresses_seq", strategy=PooledSequenceGenerator.STRATEGY,
+			parameters=@Parameter(name=SequenceStyleGenerator.SEQUENCE_PARAM, value="addresses_seq"))
 	private long id;
 	
 	@Column(length=30, nullable=false)
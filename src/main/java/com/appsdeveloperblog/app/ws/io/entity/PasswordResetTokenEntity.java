@@ -1,25 +1,46 @@
 package com.appsdeveloperblog.app.ws.io.entity;
 
 import java.io.Serializable;
+import java.util.Date;
 
+import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
-import javax.persistence.OneToOne;
+import javax.persistence.ManyToOne;
+import javax.persistence.Table;
+import javax.persistence.Temporal;
+import javax.persistence.TemporalType;
+import javax.persistence.UniqueConstraint;
+
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
 
 @Entity(name="password_reset_tokens")
+@Table(uniqueConstraints = @UniqueConstraint(name="uk_password_reset_tokens_token_hash", columnNames="token_hash"),
+		indexes = { @Index(name="ix_password_reset_tokens_users_id", columnList="users_id"),
+				@Index(name="ix_password_reset_tokens_expires_at", columnList="expires_at") })
 public class PasswordResetTokenEntity implements Serializable {
 
 	private static final long serialVersionUID = 8051324316462829780L;
 	
 	@Id
-	@GeneratedValue
+	@GeneratedValue(generator="password_reset_tokens_seq")
+	@GenericGenerator(name="password_reset_tokens_seq", strategy=PooledSequenceGenerator.STRATEGY,
+			parameters=@Parameter(name=SequenceStyleGenerator.SEQUENCE_PARAM, value="password_reset_tokens_seq"))
 	private long id;
 	
-	private String token;
+	@Column(name="token_hash", length=43, nullable=false)
+	private String tokenHash;
+	
+	@Column(name="expires_at", nullable=false)
+	@Temporal(TemporalType.TIMESTAMP)
+	private Date expiresAt;
 	
-	@OneToOne()
+	@ManyToOne()
 	@JoinColumn(name="users_id")
 	private UserEntity userDetails;
 
@@ -31,12 +52,20 @@ public class PasswordResetTokenEntity implements Serializable {
 		this.id = id;
 	}
 
-	public String getToken() {
-		return token;
+	public String getTokenHash() {
+		return tokenHash;
+	}
+
+	public void setTokenHash(String tokenHash) {
+		this.tokenHash = tokenHash;
+	}
+
+	public Date getExpiresAt() {
+		return expiresAt;
 	}
 
-	public void setToken(String token) {
-		this.token = token;
+	public void setExpiresAt(Date expiresAt) {
+		this.expiresAt = expiresAt;
 	}
 
 	public UserEntity getUserDetails() {
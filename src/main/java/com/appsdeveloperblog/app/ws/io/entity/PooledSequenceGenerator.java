@@ -0,0 +1,32 @@
+package com.appsdeveloperblog.app.ws.io.entity;
+
+import java.util.Properties;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.internal.util.config.ConfigurationHelper;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+// A per-table sequence handing out blocks of ids, so inserts need one sequence call per block and can be batched.
+// The block size comes from the ALLOCATION_SIZE setting and must match the sequence's increment in the database.
+public class PooledSequenceGenerator extends SequenceStyleGenerator {
+	
+	public static final String STRATEGY = "com.appsdeveloperblog.app.ws.io.entity.PooledSequenceGenerator";
+	public static final String ALLOCATION_SIZE = "app.id.allocation_size";
+	public static final int DEFAULT_ALLOCATION_SIZE = 50;
+
+	@Override
+	public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+		int allocationSize = ConfigurationHelper.getInt(ALLOCATION_SIZE,
+				serviceRegistry.getService(ConfigurationService.class).getSettings(), DEFAULT_ALLOCATION_SIZE);
+		
+		params.setProperty(INCREMENT_PARAM, Integer.toString(allocationSize));
+		params.setProperty(OPT_PARAM, StandardOptimizerDescriptor.POOLED_LO.getExternalName());
+		
+		super.configure(type, params, serviceRegistry);
+	}
+
+}
@@ -5,16 +5,27 @@ import java.util.List;
 
 import javax.persistence.*;
 
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 
 @Entity(name="users")
+@Table(uniqueConstraints = {
+		@UniqueConstraint(name="uk_users_user_id", columnNames="userId"),
+		@UniqueConstraint(name="uk_users_email", columnNames="email") })
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+@DynamicUpdate
 public class UserEntity implements Serializable {
 
 	private static final long serialVersionUID = 5313493413859894403L;
 	
 	@Id
-	@GeneratedValue
+	@GeneratedValue(generator="users_seq")
+	@GenericGenerator(name="users_seq", strategy=PooledSequenceGenerator.STRATEGY,
+			parameters=@Parameter(name=SequenceStyleGenerator.SEQUENCE_PARAM, value="users_seq"))
 	private long id;
 	
 	@Column(nullable=false)
@@ -37,6 +48,10 @@ public class UserEntity implements Serializable {
 	@Column(nullable=false)
 	private Boolean emailVerificationStatus = false;
 	
+	@Version
+	@Column(nullable=false)
+	private long version;
+	
 	@OneToMany(mappedBy="userDetails", cascade=CascadeType.ALL, fetch= FetchType.LAZY)
 	private List<AddressEntity> addresses;
 
@@ -104,6 +119,14 @@ public class UserEntity implements Serializable {
 		this.emailVerificationStatus = emailVerificationStatus;
 	}
 
+	public long getVersion() {
+		return version;
+	}
+
+	public void setVersion(long version) {
+		this.version = version;
+	}
+
 	public List<AddressEntity> getAddresses() {
 		return addresses;
 	}
@@ -0,0 +1,41 @@
+package com.appsdeveloperblog.app.ws.io.migration;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import com.appsdeveloperblog.app.ws.security.AppProperties;
+
+// Replaces the shared hibernate_sequence with one sequence per table. Each sequence starts past the table's
+// highest id and increments by the configured allocation size. Changing idAllocationSize later requires
+// altering the increment of these sequences to match. V7 drops the old hibernate_sequence.
+public class V3__PooledSequences extends BaseJavaMigration {
+	
+	private static final String[] TABLES = { "users", "addresses", "password_reset_tokens" };
+	
+	private final AppProperties appProperties;
+	
+	public V3__PooledSequences(AppProperties appProperties) {
+		this.appProperties = appProperties;
+	}
+
+	@Override
+	public void migrate(Context context) throws Exception {
+		int allocationSize = appProperties.getIdAllocationSize();
+		
+		try (Statement statement = context.getConnection().createStatement()) {
+			for (String table : TABLES) {
+				long start;
+				try (ResultSet resultSet = statement.executeQuery("select coalesce(max(id), 0) + 1 from " + table)) {
+					resultSet.next();
+					start = resultSet.getLong(1);
+				}
+				
+				statement.execute("create sequence " + table + "_seq start with " + start + " increment by " + allocationSize);
+			}
+		}
+	}
+
+}
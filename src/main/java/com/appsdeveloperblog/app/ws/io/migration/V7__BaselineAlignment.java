@@ -0,0 +1,45 @@
+package com.appsdeveloperblog.app.ws.io.migration;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+// Databases baselined from a ddl-auto schema may carry a unique key on password_reset_tokens.users_id from the
+// old one-to-one mapping, under a name that depends on the Hibernate version that created it, so any unique
+// constraint on that column alone is dropped to match a schema built by V1. Also drops the hibernate_sequence
+// that V3 replaced.
+public class V7__BaselineAlignment extends BaseJavaMigration {
+
+	@Override
+	public void migrate(Context context) throws Exception {
+		try (Statement statement = context.getConnection().createStatement()) {
+			Map<String, List<String>> uniqueConstraintColumns = new LinkedHashMap<>();
+			try (ResultSet resultSet = statement.executeQuery("select tc.constraint_name, kcu.column_name"
+					+ " from information_schema.table_constraints tc"
+					+ " join information_schema.key_column_usage kcu on kcu.constraint_name = tc.constraint_name"
+					+ " and kcu.table_name = tc.table_name"
+					+ " where lower(tc.table_name) = 'password_reset_tokens' and tc.constraint_type = 'UNIQUE'")) {
+				while (resultSet.next()) {
+					uniqueConstraintColumns.computeIfAbsent(resultSet.getString(1), name -> new ArrayList<>())
+							.add(resultSet.getString(2));
+				}
+			}
+			
+			for (Map.Entry<String, List<String>> constraint : uniqueConstraintColumns.entrySet()) {
+				List<String> columns = constraint.getValue();
+				if (columns.size() == 1 && columns.get(0).equalsIgnoreCase("users_id")) {
+					statement.execute("alter table password_reset_tokens drop constraint " + constraint.getKey());
+				}
+			}
+			
+			statement.execute("drop sequence if exists hibernate_sequence");
+		}
+	}
+
+}
@@ -2,14 +2,23 @@ package com.appsdeveloperblog.app.ws.io.repositories;
 
 import java.util.List;
 
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.appsdeveloperblog.app.ws.io.entity.AddressEntity;
-import com.appsdeveloperblog.app.ws.io.entity.UserEntity;
+import com.appsdeveloperblog.app.ws.shared.dto.AddressDto;
 
 @Repository
 public interface AddressRepository extends CrudRepository<AddressEntity, Long>{
-	List<AddressEntity> findAllByUserDetails(UserEntity userEntity);
 	AddressEntity findByAddressId(String addressId);
+	
+	@Query("select new com.appsdeveloperblog.app.ws.shared.dto.AddressDto(a.id, a.addressId, a.city, a.country, "
+			+ "a.streetName, a.postalCode, a.type) from addresses a where a.userDetails.userId = :userId order by a.id")
+	List<AddressDto> findAllByUserId(@Param("userId") String userId);
+	
+	@Query("select new com.appsdeveloperblog.app.ws.shared.dto.AddressDto(a.id, a.addressId, a.city, a.country, "
+			+ "a.streetName, a.postalCode, a.type) from addresses a where a.addressId = :addressId")
+	AddressDto findDtoByAddressId(@Param("addressId") String addressId);
 }
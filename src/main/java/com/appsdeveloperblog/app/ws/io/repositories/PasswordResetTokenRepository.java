@@ -1,12 +1,35 @@
 package com.appsdeveloperblog.app.ws.io.repositories;
 
-import org.springframework.stereotype.Repository;
+import java.util.Date;
+import java.util.List;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
 
 import com.appsdeveloperblog.app.ws.io.entity.PasswordResetTokenEntity;
+import com.appsdeveloperblog.app.ws.io.entity.UserEntity;
 
 @Repository
 public interface PasswordResetTokenRepository extends CrudRepository<PasswordResetTokenEntity, Long>{
-	PasswordResetTokenEntity findByToken(String token);
+	@Query("select t.userDetails from password_reset_tokens t where t.tokenHash = :tokenHash and t.expiresAt > :now")
+	UserEntity findUserByValidTokenHash(@Param("tokenHash") String tokenHash, @Param("now") Date now);
+	
+	@Modifying
+	@Query("delete from password_reset_tokens t where t.tokenHash = :tokenHash and t.expiresAt > :now")
+	int deleteValidByTokenHash(@Param("tokenHash") String tokenHash, @Param("now") Date now);
+	
+	@Modifying
+	@Query("delete from password_reset_tokens t where t.userDetails = :userDetails")
+	int deleteByUserDetails(@Param("userDetails") UserEntity userDetails);
+	
+	@Query("select t.id from password_reset_tokens t where t.expiresAt < :now order by t.id")
+	List<Long> findExpiredIds(@Param("now") Date now, Pageable pageable);
+	
+	@Modifying
+	@Query("delete from password_reset_tokens t where t.id in :ids")
+	int deleteByIdIn(@Param("ids") List<Long> ids);
 }
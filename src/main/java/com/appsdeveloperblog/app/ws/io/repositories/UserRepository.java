@@ -1,12 +1,47 @@
 package com.appsdeveloperblog.app.ws.io.repositories;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import javax.persistence.QueryHint;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.appsdeveloperblog.app.ws.io.entity.UserEntity;
+import com.appsdeveloperblog.app.ws.shared.dto.UserDto;
 
 @Repository
-public interface UserRepository extends PagingAndSortingRepository<UserEntity, Long> {
+public interface UserRepository extends PagingAndSortingRepository<UserEntity, Long>, UserRepositoryCustom {
 	UserEntity findByEmail(String email);
 	UserEntity findByUserId(String userId);
+	
+	@EntityGraph(attributePaths = "addresses")
+	UserEntity findWithAddressesByUserId(String userId);
+	
+	@Query("select u.version from users u where u.userId = :userId")
+	Long findVersionByUserId(@Param("userId") String userId);
+	
+	@Query("select u.email from users u where u.email in :emails")
+	Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
+	
+	// List pages only need the public columns; passwords and tokens are never read
+	@Query("select new com.appsdeveloperblog.app.ws.shared.dto.UserDto(u.id, u.userId, u.firstName, u.lastName, u.email) "
+			+ "from users u")
+	List<UserDto> findAllDtosBy(Pageable pageable);
+	
+	@Query("select new com.appsdeveloperblog.app.ws.shared.dto.UserDto(u.id, u.userId, u.firstName, u.lastName, u.email) "
+			+ "from users u where u.id > :id order by u.id")
+	List<UserDto> findDtosByIdGreaterThan(@Param("id") long id, Pageable pageable);
+	
+	@QueryHints(@QueryHint(name = org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE, value = "500"))
+	@Query("select u from users u order by u.id")
+	Stream<UserEntity> streamAll();
 }
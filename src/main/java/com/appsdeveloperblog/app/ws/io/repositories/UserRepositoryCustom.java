@@ -0,0 +1,5 @@
+package com.appsdeveloperblog.app.ws.io.repositories;
+
+public interface UserRepositoryCustom {
+	int updateNames(String userId, Long version, String firstName, String lastName);
+}
@@ -0,0 +1,35 @@
+package com.appsdeveloperblog.app.ws.io.repositories;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaUpdate;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+
+import com.appsdeveloperblog.app.ws.io.entity.UserEntity;
+
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+	
+	@PersistenceContext
+	EntityManager entityManager;
+
+	// One UPDATE that sets only the given columns and bumps the version; a null version skips the version check
+	@Override
+	public int updateNames(String userId, Long version, String firstName, String lastName) {
+		CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+		CriteriaUpdate<UserEntity> update = criteriaBuilder.createCriteriaUpdate(UserEntity.class);
+		Root<UserEntity> user = update.from(UserEntity.class);
+		
+		if (firstName != null) update.set(user.<String>get("firstName"), firstName);
+		if (lastName != null) update.set(user.<String>get("lastName"), lastName);
+		update.set(user.<Long>get("version"), criteriaBuilder.sum(user.<Long>get("version"), 1L));
+		
+		Predicate where = criteriaBuilder.equal(user.get("userId"), userId);
+		if (version != null) where = criteriaBuilder.and(where, criteriaBuilder.equal(user.get("version"), version));
+		update.where(where);
+		
+		return entityManager.createQuery(update).executeUpdate();
+	}
+
+}
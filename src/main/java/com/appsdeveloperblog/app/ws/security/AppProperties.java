@@ -2,9 +2,11 @@ package com.appsdeveloperblog.app.ws.security;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.env.Environment;
-import org.springframework.stereotype.Component;
+import org.springframework.http.MediaType;
+
+import com.appsdeveloperblog.app.ws.io.entity.PooledSequenceGenerator;
+import com.appsdeveloperblog.app.ws.ui.controllers.UsersExecutionMode;
 
-@Component
 public class AppProperties {
 
 	@Autowired
@@ -14,4 +16,68 @@ public class AppProperties {
 		return env.getProperty("tokenSecret");
 	}
 	
+	public long getTokenSecretGracePeriod() {
+		return env.getProperty("tokenSecretGracePeriod", Long.class, 3600000L);
+	}
+	
+	public int getTokenCacheMaxSize() {
+		return env.getProperty("tokenCacheMaxSize", Integer.class, 10000);
+	}
+	
+	public String getActuatorUsername() {
+		return env.getProperty("actuatorUsername", "actuator");
+	}
+	
+	public String getActuatorPassword() {
+		return env.getProperty("actuatorPassword");
+	}
+	
+	public int getBcryptStrength() {
+		return env.getProperty("bcryptStrength", Integer.class, 10);
+	}
+	
+	public int getPasswordHashingThreads() {
+		return env.getProperty("passwordHashingThreads", Integer.class, Runtime.getRuntime().availableProcessors());
+	}
+	
+	public int getPasswordHashingQueueCapacity() {
+		return env.getProperty("passwordHashingQueueCapacity", Integer.class, 100);
+	}
+	
+	public int getIdAllocationSize() {
+		return env.getProperty("idAllocationSize", Integer.class, PooledSequenceGenerator.DEFAULT_ALLOCATION_SIZE);
+	}
+	
+	public int getPasswordResetQueueCapacity() {
+		return env.getProperty("passwordResetQueueCapacity", Integer.class, 1000);
+	}
+	
+	public long getPasswordResetRequestInterval() {
+		return env.getProperty("passwordResetRequestInterval", Long.class, 60000L);
+	}
+	
+	public int getPasswordResetSweepChunkSize() {
+		return env.getProperty("passwordResetSweepChunkSize", Integer.class, 1000);
+	}
+	
+	public MediaType getDefaultContentType() {
+		return MediaType.valueOf(env.getProperty("defaultContentType", MediaType.APPLICATION_JSON_VALUE));
+	}
+	
+	public UsersExecutionMode getUsersExecutionMode() {
+		return env.getProperty("usersExecutionMode", UsersExecutionMode.class, UsersExecutionMode.SERVLET);
+	}
+	
+	public int getUsersExecutionThreads() {
+		return env.getProperty("usersExecutionThreads", Integer.class, 200);
+	}
+	
+	public int getUsersExecutionQueueCapacity() {
+		return env.getProperty("usersExecutionQueueCapacity", Integer.class, 2000);
+	}
+	
+	public int getImportChunkSize() {
+		return env.getProperty("importChunkSize", Integer.class, 500);
+	}
+	
 }
@@ -3,34 +3,62 @@ package com.appsdeveloperblog.app.ws.security;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.concurrent.RejectedExecutionException;
 
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
-import com.appsdeveloperblog.app.ws.SpringApplicationContext;
-import com.appsdeveloperblog.app.ws.service.UserService;
-import com.appsdeveloperblog.app.ws.shared.dto.UserDto;
+import com.appsdeveloperblog.app.ws.exceptions.AppExceptionsHandler;
 import com.appsdeveloperblog.app.ws.ui.model.request.UserLoginRequestModel;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
 
 public class AuthenticationFilter extends UsernamePasswordAuthenticationFilter {
 	
 	private final AuthenticationManager authenticationManager;
+	private final TokenSigningKey tokenSigningKey;
+	private final SecurityTimers securityTimers;
 	
-	public AuthenticationFilter(AuthenticationManager authenticationManager) {
+	public AuthenticationFilter(AuthenticationManager authenticationManager, TokenSigningKey tokenSigningKey,
+			SecurityTimers securityTimers) {
 		this.authenticationManager = authenticationManager;
+		this.tokenSigningKey = tokenSigningKey;
+		this.securityTimers = securityTimers;
+	}
+	
+	// Times the whole login, user lookup and BCrypt included, by the status it ends with.
+	// A saturated password hashing pool gets the same 503 and Retry-After as a busy controller.
+	@Override
+	public void doFilter(ServletRequest req, ServletResponse res, FilterChain chain) throws IOException, ServletException {
+		if (!requiresAuthentication((HttpServletRequest) req, (HttpServletResponse) res)) {
+			super.doFilter(req, res, chain);
+			return;
+		}
+		
+		long start = System.nanoTime();
+		try {
+			super.doFilter(req, res, chain);
+		} catch (RejectedExecutionException e) {
+			HttpServletResponse response = (HttpServletResponse) res;
+			response.setHeader(HttpHeaders.RETRY_AFTER, AppExceptionsHandler.RETRY_AFTER_SECONDS);
+			response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+		} catch (IOException | ServletException | RuntimeException e) {
+			securityTimers.recordLoginError(start);
+			throw e;
+		}
+		securityTimers.recordLogin(start, ((HttpServletResponse) res).getStatus());
 	}
 
 	@Override
@@ -57,20 +85,17 @@ public class AuthenticationFilter extends UsernamePasswordAuthenticationFilter {
 											FilterChain chain,
 											Authentication authResult) throws IOException, ServletException {
 		
-		String userName = ((User) authResult.getPrincipal()).getUsername();
-		//String tokenSecret = new SecurityConstants().getTokenSecret();
+		UserPrincipal userPrincipal = (UserPrincipal) authResult.getPrincipal();
+		String userName = userPrincipal.getUsername();
 		
 		String token = Jwts.builder()
 				.setSubject(userName)
 				.setExpiration(new Date(System.currentTimeMillis() + SecurityConstants.EXPIRATION_TIME))
-				.signWith(SignatureAlgorithm.HS512, SecurityConstants.getTokenSecret())
+				.signWith(TokenSigningKey.SIGNATURE_ALGORITHM, tokenSigningKey.getKey())
 				.compact();
 		
-		UserService userService = (UserService) SpringApplicationContext.getBean("userServiceImpl");
-		UserDto userDto = userService.getUser(userName);
-		
 		response.addHeader(SecurityConstants.HEADER_STRING, SecurityConstants.TOKEN_PREFIX + token);
-		response.addHeader("UserID", userDto.getUserId());
+		response.addHeader("UserID", userPrincipal.getUserId());
 	}
 	
 	
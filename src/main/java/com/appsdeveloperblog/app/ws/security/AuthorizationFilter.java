@@ -13,12 +13,20 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 
-import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.Claims;
 
 public class AuthorizationFilter extends BasicAuthenticationFilter {
+	
+	private final TokenSigningKey tokenSigningKey;
+	private final TokenCache tokenCache;
+	private final SecurityTimers securityTimers;
 
-	public AuthorizationFilter(AuthenticationManager authenticationManager) {
+	public AuthorizationFilter(AuthenticationManager authenticationManager, TokenSigningKey tokenSigningKey, TokenCache tokenCache,
+			SecurityTimers securityTimers) {
 		super(authenticationManager);
+		this.tokenSigningKey = tokenSigningKey;
+		this.tokenCache = tokenCache;
+		this.securityTimers = securityTimers;
 	}
 
 	@Override
@@ -46,11 +54,23 @@ public class AuthorizationFilter extends BasicAuthenticationFilter {
 		if (token != null) {
 			token = token.replace(SecurityConstants.TOKEN_PREFIX, "");
 			
-			String user = Jwts.parser()
-					.setSigningKey(SecurityConstants.getTokenSecret())
-					.parseClaimsJws(token)
-					.getBody()
-					.getSubject();
+			long start = System.nanoTime();
+			String user = tokenCache.getSubject(token);
+			boolean cached = user != null;
+			
+			if (!cached) {
+				Claims claims;
+				try {
+					claims = tokenSigningKey.parseClaims(token);
+				} catch (RuntimeException e) {
+					securityTimers.recordTokenVerification(start, false, false);
+					throw e;
+				}
+				
+				user = claims.getSubject();
+				tokenCache.put(token, user, claims.getExpiration());
+			}
+			securityTimers.recordTokenVerification(start, cached, user != null);
 			
 			if (user != null) {
 				return new UsernamePasswordAuthenticationToken(user, null, new ArrayList<>());
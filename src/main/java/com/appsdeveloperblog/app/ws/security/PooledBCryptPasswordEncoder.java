@@ -0,0 +1,158 @@
+package com.appsdeveloperblog.app.ws.security;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import com.appsdeveloperblog.app.ws.ui.model.response.ErrorMessages;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+// Runs BCrypt on a dedicated bounded pool so login storms cannot occupy every request thread.
+// A full pool throws RejectedExecutionException, which callers answer with 503 and Retry-After.
+public class PooledBCryptPasswordEncoder extends BCryptPasswordEncoder implements MeterBinder, DisposableBean {
+	
+	private final ThreadPoolExecutor executor;
+	private final LongAdder rejected = new LongAdder();
+	
+	private volatile Timer encodeTimer;
+	private volatile Timer matchesTimer;
+	
+	public PooledBCryptPasswordEncoder(int strength, int threads, int queueCapacity) {
+		super(strength);
+		this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("password-hashing-"));
+	}
+
+	@Override
+	public String encode(CharSequence rawPassword) {
+		return execute(() -> hash(rawPassword));
+	}
+	
+	// Bulk hashing keeps at most one task per worker in the queue so logins still find room,
+	// and hashes on the calling thread instead of failing when the pool is saturated
+	public List<String> encodeAll(List<? extends CharSequence> rawPasswords) {
+		String[] returnValue = new String[rawPasswords.size()];
+		Semaphore inFlight = new Semaphore(executor.getMaximumPoolSize());
+		List<Future<?>> futures = new ArrayList<>(rawPasswords.size());
+		
+		try {
+			for (int i = 0; i < rawPasswords.size(); i++) {
+				int index = i;
+				Runnable task = () -> {
+					try {
+						returnValue[index] = hash(rawPasswords.get(index));
+					} finally {
+						inFlight.release();
+					}
+				};
+				
+				inFlight.acquire();
+				try {
+					futures.add(executor.submit(task));
+				} catch (RejectedExecutionException e) {
+					task.run();
+				}
+			}
+			
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} catch (InterruptedException e) {
+			futures.forEach(future -> future.cancel(true));
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+			throw new IllegalStateException(e.getCause());
+		}
+		
+		return Arrays.asList(returnValue);
+	}
+
+	@Override
+	public boolean matches(CharSequence rawPassword, String encodedPassword) {
+		return execute(() -> {
+			long start = System.nanoTime();
+			try {
+				return PooledBCryptPasswordEncoder.super.matches(rawPassword, encodedPassword);
+			} finally {
+				record(matchesTimer, start);
+			}
+		});
+	}
+	
+	public int getQueueDepth() {
+		return executor.getQueue().size();
+	}
+	
+	public long getRejectedCount() {
+		return rejected.sum();
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		encodeTimer = Timer.builder("password.hash").tag("operation", "encode").register(registry);
+		matchesTimer = Timer.builder("password.hash").tag("operation", "matches").register(registry);
+		Gauge.builder("password.hash.queue.depth", this, PooledBCryptPasswordEncoder::getQueueDepth).register(registry);
+		Gauge.builder("password.hash.active", executor, ThreadPoolExecutor::getActiveCount).register(registry);
+		FunctionCounter.builder("password.hash.rejected", this, PooledBCryptPasswordEncoder::getRejectedCount).register(registry);
+	}
+
+	@Override
+	public void destroy() {
+		executor.shutdown();
+	}
+	
+	private <T> T execute(Callable<T> task) {
+		Future<T> future;
+		
+		try {
+			future = executor.submit(task);
+		} catch (RejectedExecutionException e) {
+			rejected.increment();
+			throw new RejectedExecutionException(ErrorMessages.SERVER_BUSY.getErrorMessage(), e);
+		}
+		
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+	
+	private String hash(CharSequence rawPassword) {
+		long start = System.nanoTime();
+		try {
+			return super.encode(rawPassword);
+		} finally {
+			record(encodeTimer, start);
+		}
+	}
+	
+	private static void record(Timer timer, long start) {
+		if (timer != null) timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+	}
+}
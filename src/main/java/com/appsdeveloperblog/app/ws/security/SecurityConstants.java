@@ -1,7 +1,5 @@
 package com.appsdeveloperblog.app.ws.security;
 
-import com.appsdeveloperblog.app.ws.SpringApplicationContext;
-
 public class SecurityConstants {
 	public static final long EXPIRATION_TIME = 864000000;
 	public static final long PASSWORD_RESET_EXPIRATION_TIME = 3600000;
@@ -10,9 +8,5 @@ public class SecurityConstants {
 	public static final String SIGN_UP_URL = "/users";
 	public static final String PASSWORD_RESET_REQUEST_URL = "/users/password-reset-request";
 	public static final String PASSWORD_RESET_URL = "/users/password-reset";
-	
-	public static String getTokenSecret() {
-		AppProperties appProperties = (AppProperties) SpringApplicationContext.getBean("AppProperties");
-		return appProperties.getTokenSecret();
-	}
+	public static final String ACTUATOR_ROLE = "ACTUATOR";
 }
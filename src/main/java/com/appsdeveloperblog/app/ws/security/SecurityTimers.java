@@ -0,0 +1,48 @@
+package com.appsdeveloperblog.app.ws.security;
+
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+// Login and JWT verification timers for the security filters, which are not beans themselves
+@Component
+public class SecurityTimers implements MeterBinder {
+
+	private volatile Timer loginSuccess;
+	private volatile Timer loginFailure;
+	private volatile Timer loginError;
+
+	private volatile Timer tokenCached;
+	private volatile Timer tokenVerified;
+	private volatile Timer tokenInvalid;
+
+	public void recordLogin(long start, int status) {
+		record(status < 400 ? loginSuccess : status < 500 ? loginFailure : loginError, start);
+	}
+
+	public void recordLoginError(long start) {
+		record(loginError, start);
+	}
+
+	public void recordTokenVerification(long start, boolean cached, boolean valid) {
+		record(!valid ? tokenInvalid : cached ? tokenCached : tokenVerified, start);
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		loginSuccess = Timer.builder("users.login").tag("outcome", "success").register(registry);
+		loginFailure = Timer.builder("users.login").tag("outcome", "failure").register(registry);
+		loginError = Timer.builder("users.login").tag("outcome", "error").register(registry);
+		tokenCached = Timer.builder("jwt.verify").tag("cache", "hit").tag("outcome", "valid").register(registry);
+		tokenVerified = Timer.builder("jwt.verify").tag("cache", "miss").tag("outcome", "valid").register(registry);
+		tokenInvalid = Timer.builder("jwt.verify").tag("cache", "miss").tag("outcome", "invalid").register(registry);
+	}
+
+	private static void record(Timer timer, long start) {
+		if (timer != null) timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+	}
+}
@@ -0,0 +1,130 @@
+package com.appsdeveloperblog.app.ws.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+// Keeps the subject and expiration of already verified tokens, keyed by a SHA-256 of the token. Caffeine bounds
+// the size and drops each entry when its token expires; both count as evictions.
+@Component
+public class TokenCache implements MeterBinder {
+
+	private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	});
+
+	private final Cache<String, CachedToken> tokens;
+	private final int maxSize;
+
+	@Autowired
+	public TokenCache(AppProperties appProperties) {
+		this(appProperties.getTokenCacheMaxSize());
+	}
+
+	// Maintenance runs on the calling thread, amortized over reads and writes like Caffeine's default
+	TokenCache(int maxSize) {
+		this.maxSize = maxSize;
+		this.tokens = Caffeine.newBuilder()
+				.maximumSize(Math.max(maxSize, 0))
+				.expireAfter(new UntilTokenExpires())
+				.executor(Runnable::run)
+				.recordStats()
+				.build();
+	}
+
+	public String getSubject(String token) {
+		CachedToken cachedToken = tokens.getIfPresent(hash(token));
+		return cachedToken != null ? cachedToken.subject : null;
+	}
+
+	public void put(String token, String subject, Date expiration) {
+		if (maxSize <= 0 || subject == null || expiration == null) return;
+
+		tokens.put(hash(token), new CachedToken(subject, expiration.getTime()));
+	}
+
+	@EventListener(TokenSigningKeyRotatedEvent.class)
+	public void clear() {
+		tokens.invalidateAll();
+	}
+
+	public long getHitCount() {
+		return tokens.stats().hitCount();
+	}
+
+	public long getMissCount() {
+		return tokens.stats().missCount();
+	}
+
+	public long getEvictionCount() {
+		return tokens.stats().evictionCount();
+	}
+
+	// Removes pending expired and evicted entries first, so the size is exact
+	public long size() {
+		tokens.cleanUp();
+		return tokens.estimatedSize();
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		FunctionCounter.builder("jwt.cache.hits", this, TokenCache::getHitCount).register(registry);
+		FunctionCounter.builder("jwt.cache.misses", this, TokenCache::getMissCount).register(registry);
+		FunctionCounter.builder("jwt.cache.evictions", this, TokenCache::getEvictionCount).register(registry);
+		Gauge.builder("jwt.cache.size", this, TokenCache::size).register(registry);
+	}
+
+	private static String hash(String token) {
+		MessageDigest digest = SHA_256.get();
+		return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	private static final class CachedToken {
+		private final String subject;
+		private final long expiresAt;
+
+		private CachedToken(String subject, long expiresAt) {
+			this.subject = subject;
+			this.expiresAt = expiresAt;
+		}
+	}
+
+	// Each entry lives until its token's own expiration; reads do not extend it
+	private static final class UntilTokenExpires implements Expiry<String, CachedToken> {
+
+		@Override
+		public long expireAfterCreate(String key, CachedToken value, long currentTime) {
+			return TimeUnit.MILLISECONDS.toNanos(Math.max(value.expiresAt - System.currentTimeMillis(), 0));
+		}
+
+		@Override
+		public long expireAfterUpdate(String key, CachedToken value, long currentTime, long currentDuration) {
+			return expireAfterCreate(key, value, currentTime);
+		}
+
+		@Override
+		public long expireAfterRead(String key, CachedToken value, long currentTime, long currentDuration) {
+			return currentDuration;
+		}
+	}
+}
@@ -0,0 +1,79 @@
+package com.appsdeveloperblog.app.ws.security;
+
+import java.security.Key;
+import java.util.Date;
+
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SignatureException;
+import io.jsonwebtoken.impl.TextCodec;
+
+@Component
+public class TokenSigningKey {
+	
+	public static final SignatureAlgorithm SIGNATURE_ALGORITHM = SignatureAlgorithm.HS512;
+	
+	private final ApplicationEventPublisher eventPublisher;
+	private final long gracePeriod;
+	
+	private volatile Keys keys;
+	
+	public TokenSigningKey(AppProperties appProperties, ApplicationEventPublisher eventPublisher) {
+		this.eventPublisher = eventPublisher;
+		this.gracePeriod = appProperties.getTokenSecretGracePeriod();
+		this.keys = new Keys(buildKey(appProperties.getTokenSecret()), null, 0);
+	}
+	
+	public Key getKey() {
+		return keys.current;
+	}
+	
+	public Claims parseClaims(String token) {
+		Keys keys = this.keys;
+		
+		try {
+			return Jwts.parser().setSigningKey(keys.current).parseClaimsJws(token).getBody();
+		} catch (SignatureException e) {
+			if (keys.previous == null || System.currentTimeMillis() >= keys.previousValidUntil) throw e;
+		}
+		
+		Claims claims = Jwts.parser().setSigningKey(keys.previous).parseClaimsJws(token).getBody();
+		
+		// Tokens signed with the retired key are only honoured until its grace period ends
+		if (claims.getExpiration() == null || claims.getExpiration().getTime() > keys.previousValidUntil) {
+			claims.setExpiration(new Date(keys.previousValidUntil));
+		}
+		
+		return claims;
+	}
+	
+	public synchronized void rotate(String tokenSecret) {
+		Keys keys = this.keys;
+		this.keys = new Keys(buildKey(tokenSecret), keys.current, System.currentTimeMillis() + gracePeriod);
+		
+		eventPublisher.publishEvent(new TokenSigningKeyRotatedEvent(this));
+	}
+	
+	// Same decoding jjwt applies to a base64 secret passed as a String, so existing tokens stay valid
+	private static Key buildKey(String tokenSecret) {
+		return new SecretKeySpec(TextCodec.BASE64.decode(tokenSecret), SIGNATURE_ALGORITHM.getJcaName());
+	}
+	
+	private static final class Keys {
+		private final Key current;
+		private final Key previous;
+		private final long previousValidUntil;
+		
+		private Keys(Key current, Key previous, long previousValidUntil) {
+			this.current = current;
+			this.previous = previous;
+			this.previousValidUntil = previousValidUntil;
+		}
+	}
+}
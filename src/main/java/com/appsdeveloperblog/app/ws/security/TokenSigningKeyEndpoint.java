@@ -0,0 +1,23 @@
+package com.appsdeveloperblog.app.ws.security;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+// POST /actuator/tokensigningkey with {"tokenSecret": "..."} as the actuator user. The key only changes on the
+// node that handles the request, so every node has to be called, or tokens it signs fail elsewhere.
+@Component
+@Endpoint(id = "tokensigningkey")
+public class TokenSigningKeyEndpoint {
+	
+	private final TokenSigningKey tokenSigningKey;
+	
+	public TokenSigningKeyEndpoint(TokenSigningKey tokenSigningKey) {
+		this.tokenSigningKey = tokenSigningKey;
+	}
+	
+	@WriteOperation
+	public void rotate(String tokenSecret) {
+		tokenSigningKey.rotate(tokenSecret);
+	}
+}
@@ -0,0 +1,13 @@
+package com.appsdeveloperblog.app.ws.security;
+
+import org.springframework.context.ApplicationEvent;
+
+public class TokenSigningKeyRotatedEvent extends ApplicationEvent {
+
+	private static final long serialVersionUID = -3283727402718458530L;
+
+	public TokenSigningKeyRotatedEvent(TokenSigningKey source) {
+		super(source);
+	}
+
+}
@@ -0,0 +1,24 @@
+package com.appsdeveloperblog.app.ws.security;
+
+import java.util.ArrayList;
+
+import org.springframework.security.core.userdetails.User;
+
+import com.appsdeveloperblog.app.ws.io.entity.UserEntity;
+
+public class UserPrincipal extends User {
+
+	private static final long serialVersionUID = -2284183949429343424L;
+	
+	private final String userId;
+
+	public UserPrincipal(UserEntity userEntity) {
+		super(userEntity.getEmail(), userEntity.getEncryptedPassword(), new ArrayList<>());
+		this.userId = userEntity.getUserId();
+	}
+
+	public String getUserId() {
+		return userId;
+	}
+	
+}
@@ -1,5 +1,9 @@
 package com.appsdeveloperblog.app.ws.security;
 
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -15,10 +19,17 @@ public class WebSecurity extends WebSecurityConfigurerAdapter {
 	
 	private final UserService userDetailsService;
 	private final BCryptPasswordEncoder bCryptPasswordEncoder;
+	private final TokenSigningKey tokenSigningKey;
+	private final TokenCache tokenCache;
+	private final SecurityTimers securityTimers;
 	
-	public WebSecurity(UserService userDetailsService, BCryptPasswordEncoder bCryptPasswordEncoder) {
+	public WebSecurity(UserService userDetailsService, BCryptPasswordEncoder bCryptPasswordEncoder,
+			TokenSigningKey tokenSigningKey, TokenCache tokenCache, SecurityTimers securityTimers) {
 		this.userDetailsService = userDetailsService;
 		this.bCryptPasswordEncoder = bCryptPasswordEncoder;
+		this.tokenSigningKey = tokenSigningKey;
+		this.tokenCache = tokenCache;
+		this.securityTimers = securityTimers;
 	}
 	
 	@Override
@@ -33,7 +44,7 @@ public class WebSecurity extends WebSecurityConfigurerAdapter {
 			.permitAll()
 			.anyRequest().authenticated().and()
 			.addFilter(getAuthenticationFilter())
-			.addFilter(new AuthorizationFilter(authenticationManager()))
+			.addFilter(new AuthorizationFilter(authenticationManager(), tokenSigningKey, tokenCache, securityTimers))
 			.sessionManagement()
 			.sessionCreationPolicy(SessionCreationPolicy.STATELESS);
 	}
@@ -44,8 +55,44 @@ public class WebSecurity extends WebSecurityConfigurerAdapter {
 	}
 	
 	public AuthenticationFilter getAuthenticationFilter() throws Exception {
-		final AuthenticationFilter filter = new AuthenticationFilter(authenticationManager());
+		final AuthenticationFilter filter = new AuthenticationFilter(authenticationManager(), tokenSigningKey, securityTimers);
 		filter.setFilterProcessesUrl("/users/login");
 		return filter;
 	}
+	
+	// Actuator endpoints other than health need HTTP Basic as the actuator user; user tokens are not accepted there
+	@Configuration
+	@Order(1)
+	public static class ActuatorSecurity extends WebSecurityConfigurerAdapter {
+		
+		private final AppProperties appProperties;
+		private final BCryptPasswordEncoder bCryptPasswordEncoder;
+		
+		public ActuatorSecurity(AppProperties appProperties, BCryptPasswordEncoder bCryptPasswordEncoder) {
+			this.appProperties = appProperties;
+			this.bCryptPasswordEncoder = bCryptPasswordEncoder;
+		}
+		
+		@Override
+		protected void configure(HttpSecurity http) throws Exception {
+			http.requestMatcher(EndpointRequest.toAnyEndpoint())
+				.csrf().disable()
+				.authorizeRequests()
+				.requestMatchers(EndpointRequest.to(HealthEndpoint.class))
+				.permitAll()
+				.anyRequest().hasRole(SecurityConstants.ACTUATOR_ROLE).and()
+				.httpBasic().and()
+				.sessionManagement()
+				.sessionCreationPolicy(SessionCreationPolicy.STATELESS);
+		}
+		
+		@Override
+		public void configure(AuthenticationManagerBuilder auth) throws Exception {
+			auth.inMemoryAuthentication()
+				.passwordEncoder(bCryptPasswordEncoder)
+				.withUser(appProperties.getActuatorUsername())
+				.password(bCryptPasswordEncoder.encode(appProperties.getActuatorPassword()))
+				.roles(SecurityConstants.ACTUATOR_ROLE);
+		}
+	}
 }
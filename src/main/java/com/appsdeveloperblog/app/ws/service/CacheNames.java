@@ -0,0 +1,17 @@
+package com.appsdeveloperblog.app.ws.service;
+
+// Each node keeps its own Caffeine caches and a write only evicts on the node that made it, so other nodes can
+// serve the old entry until expireAfterWrite (spring.cache.caffeine.spec, 10 minutes) drops it. Credentials are
+// never cached: a password reset, password change or delete takes effect on every node at the next login.
+public final class CacheNames {
+	
+	public static final String USERS = "users";
+	public static final String USERS_BY_EMAIL = "usersByEmail";
+	public static final String ADDRESSES = "addresses";
+	public static final String USER_ADDRESSES = "userAddresses";
+	public static final String USER_VERSIONS = "userVersions";
+	
+	private CacheNames() {
+	}
+
+}
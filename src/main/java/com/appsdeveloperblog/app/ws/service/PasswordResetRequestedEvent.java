@@ -0,0 +1,33 @@
+package com.appsdeveloperblog.app.ws.service;
+
+import org.springframework.context.ApplicationEvent;
+
+// Published after a reset token is committed; the raw token exists only here, so a listener has to deliver it to the user
+public class PasswordResetRequestedEvent extends ApplicationEvent {
+
+	private static final long serialVersionUID = 2150906471939411257L;
+
+	private final String userId;
+	private final String email;
+	private final String token;
+
+	public PasswordResetRequestedEvent(Object source, String userId, String email, String token) {
+		super(source);
+		this.userId = userId;
+		this.email = email;
+		this.token = token;
+	}
+
+	public String getUserId() {
+		return userId;
+	}
+
+	public String getEmail() {
+		return email;
+	}
+
+	public String getToken() {
+		return token;
+	}
+
+}
@@ -0,0 +1,11 @@
+package com.appsdeveloperblog.app.ws.service;
+
+import java.util.Iterator;
+import java.util.List;
+
+import com.appsdeveloperblog.app.ws.shared.dto.UserDto;
+import com.appsdeveloperblog.app.ws.shared.dto.UserImportResultDto;
+
+public interface UserImportService {
+	List<UserImportResultDto> importUsers(Iterator<UserDto> users);
+}
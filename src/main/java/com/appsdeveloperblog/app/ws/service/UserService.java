@@ -1,18 +1,25 @@
 package com.appsdeveloperblog.app.ws.service;
 
 import java.util.List;
+import java.util.function.Consumer;
 
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 
 import com.appsdeveloperblog.app.ws.shared.dto.UserDto;
+import com.appsdeveloperblog.app.ws.shared.dto.UserPageDto;
 
-public interface UserService extends UserDetailsService {
+public interface UserService extends UserDetailsService, UserDetailsPasswordService {
 	UserDto createUser(UserDto user);
 	UserDto getUser(String email);
 	UserDto getUserByUserId(String id);
+	Long getUserVersion(String id);
 	UserDto updateUser(String id, UserDto userDto);
+	UserDto patchUser(String id, UserDto userDto, Long version);
 	void deleteUser(String id);
 	List<UserDto> getUsers(int page, int limit);
+	UserPageDto getUsers(String cursor, int limit);
+	void streamUsers(Consumer<UserDto> consumer);
 	boolean requestPasswordReset(String email);
 	boolean resetPassword(String token, String password);
 }
@@ -1,56 +1,36 @@
 package com.appsdeveloperblog.app.ws.service.impl;
 
-import java.util.ArrayList;
 import java.util.List;
 
-import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import com.appsdeveloperblog.app.ws.io.entity.AddressEntity;
-import com.appsdeveloperblog.app.ws.io.entity.UserEntity;
 import com.appsdeveloperblog.app.ws.io.repositories.AddressRepository;
-import com.appsdeveloperblog.app.ws.io.repositories.UserRepository;
 import com.appsdeveloperblog.app.ws.service.AddressService;
+import com.appsdeveloperblog.app.ws.service.CacheNames;
 import com.appsdeveloperblog.app.ws.shared.dto.AddressDto;
 
 @Service
 public class AddressServiceImpl implements AddressService {
-
-	@Autowired
-	UserRepository userRepo;
 	
 	@Autowired
 	AddressRepository addressRepo;
 	
+	// Cached reads use the primary; see UserServiceImpl.getUser
+	@Cacheable(CacheNames.USER_ADDRESSES)
+	@Transactional
 	@Override
 	public List<AddressDto> getAddresses(String userId) {
-		List<AddressDto> returnValue = new ArrayList<>();
-		ModelMapper modelMapper = new ModelMapper();
-		
-		UserEntity userEntity = userRepo.findByUserId(userId);
-		if (userEntity == null) return returnValue;
-		
-		Iterable<AddressEntity> addresses = addressRepo.findAllByUserDetails(userEntity);
-		for (AddressEntity addressEntity : addresses) {
-			returnValue.add(modelMapper.map(addressEntity, AddressDto.class));
-		}
-		
-		return returnValue;
+		return addressRepo.findAllByUserId(userId);
 	}
 
+	@Cacheable(cacheNames = CacheNames.ADDRESSES, unless = "#result == null")
+	@Transactional
 	@Override
 	public AddressDto getAddress(String addressId) {
-		AddressDto returnValue = null;
-		ModelMapper modelMapper = new ModelMapper();
-		
-		AddressEntity addressEntity = addressRepo.findByAddressId(addressId);
-		
-		if (addressEntity != null) {
-			returnValue = modelMapper.map(addressEntity, AddressDto.class);
-		}
-		
-		return returnValue;
+		return addressRepo.findDtoByAddressId(addressId);
 	}
 
 }
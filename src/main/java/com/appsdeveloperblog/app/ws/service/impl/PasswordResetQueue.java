@@ -0,0 +1,147 @@
+package com.appsdeveloperblog.app.ws.service.impl;
+
+import java.util.Date;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.appsdeveloperblog.app.ws.io.entity.PasswordResetTokenEntity;
+import com.appsdeveloperblog.app.ws.io.entity.UserEntity;
+import com.appsdeveloperblog.app.ws.io.repositories.PasswordResetTokenRepository;
+import com.appsdeveloperblog.app.ws.io.repositories.UserRepository;
+import com.appsdeveloperblog.app.ws.security.AppProperties;
+import com.appsdeveloperblog.app.ws.security.SecurityConstants;
+import com.appsdeveloperblog.app.ws.service.PasswordResetRequestedEvent;
+import com.appsdeveloperblog.app.ws.shared.utils.Utils;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+// Creates password reset tokens on a single background worker and hands each raw token to the PasswordResetRequestedEvent
+// listeners for delivery; repeated requests for one email are throttled
+@Component
+public class PasswordResetQueue implements MeterBinder, DisposableBean {
+	
+	private final UserRepository userRepo;
+	private final PasswordResetTokenRepository passwordResetTokenRepo;
+	private final Utils utils;
+	private final TransactionTemplate transactionTemplate;
+	private final ApplicationEventPublisher eventPublisher;
+	
+	private final ThreadPoolExecutor executor;
+	private final Cache<String, Boolean> recentRequests;
+	
+	private final LongAdder throttled = new LongAdder();
+	private final LongAdder rejected = new LongAdder();
+	private final LongAdder failed = new LongAdder();
+	
+	@Autowired
+	public PasswordResetQueue(UserRepository userRepo, PasswordResetTokenRepository passwordResetTokenRepo, Utils utils,
+			PlatformTransactionManager transactionManager, AppProperties appProperties, ApplicationEventPublisher eventPublisher) {
+		this.userRepo = userRepo;
+		this.passwordResetTokenRepo = passwordResetTokenRepo;
+		this.utils = utils;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.eventPublisher = eventPublisher;
+		this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(appProperties.getPasswordResetQueueCapacity()), new CustomizableThreadFactory("password-reset-"));
+		this.recentRequests = Caffeine.newBuilder()
+				.expireAfterWrite(appProperties.getPasswordResetRequestInterval(), TimeUnit.MILLISECONDS)
+				.maximumSize(100000)
+				.build();
+	}
+	
+	// False when the email was seen within the request interval or the queue is full
+	public boolean submit(String email) {
+		if (email == null || email.isEmpty()) return false;
+		
+		String key = email.toLowerCase(Locale.ROOT);
+		if (recentRequests.asMap().putIfAbsent(key, Boolean.TRUE) != null) {
+			throttled.increment();
+			return false;
+		}
+		
+		try {
+			executor.execute(() -> createToken(email));
+			return true;
+		} catch (RejectedExecutionException e) {
+			recentRequests.invalidate(key);
+			rejected.increment();
+			return false;
+		}
+	}
+	
+	public int getQueueDepth() {
+		return executor.getQueue().size();
+	}
+	
+	public long getThrottledCount() {
+		return throttled.sum();
+	}
+	
+	public long getRejectedCount() {
+		return rejected.sum();
+	}
+	
+	public long getFailedCount() {
+		return failed.sum();
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		Gauge.builder("password.reset.queue.depth", this, PasswordResetQueue::getQueueDepth).register(registry);
+		FunctionCounter.builder("password.reset.throttled", this, PasswordResetQueue::getThrottledCount).register(registry);
+		FunctionCounter.builder("password.reset.rejected", this, PasswordResetQueue::getRejectedCount).register(registry);
+		FunctionCounter.builder("password.reset.failed", this, PasswordResetQueue::getFailedCount).register(registry);
+	}
+
+	@Override
+	public void destroy() {
+		executor.shutdown();
+	}
+	
+	private void createToken(String email) {
+		try {
+			PasswordResetRequestedEvent event = transactionTemplate.execute(status -> {
+				UserEntity userEntity = userRepo.findByEmail(email);
+				if (userEntity == null) return null;
+				
+				// Only the newest token of a user stays valid
+				passwordResetTokenRepo.deleteByUserDetails(userEntity);
+				
+				// Only the digest is stored; the raw token is what gets sent to the user
+				String token = utils.generatePasswordResetToken();
+				
+				PasswordResetTokenEntity passwordResetTokenEntity = new PasswordResetTokenEntity();
+				passwordResetTokenEntity.setTokenHash(utils.hashPasswordResetToken(token));
+				passwordResetTokenEntity.setExpiresAt(new Date(System.currentTimeMillis() + SecurityConstants.PASSWORD_RESET_EXPIRATION_TIME));
+				passwordResetTokenEntity.setUserDetails(userEntity);
+				passwordResetTokenRepo.save(passwordResetTokenEntity);
+				
+				return new PasswordResetRequestedEvent(this, userEntity.getUserId(), userEntity.getEmail(), token);
+			});
+			
+			// Published once committed, so the delivered token is already valid
+			if (event != null) eventPublisher.publishEvent(event);
+		} catch (RuntimeException e) {
+			failed.increment();
+			throw e;
+		}
+	}
+
+}
@@ -0,0 +1,77 @@
+package com.appsdeveloperblog.app.ws.service.impl;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.appsdeveloperblog.app.ws.io.repositories.PasswordResetTokenRepository;
+import com.appsdeveloperblog.app.ws.security.AppProperties;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+// Deletes expired reset tokens in short transactions so the sweep never holds locks on the whole table
+@Component
+public class PasswordResetTokenSweeper implements MeterBinder {
+	
+	private final PasswordResetTokenRepository passwordResetTokenRepo;
+	private final TransactionTemplate transactionTemplate;
+	private final int chunkSize;
+	
+	private final LongAdder swept = new LongAdder();
+	
+	private volatile Timer sweepTimer;
+	
+	@Autowired
+	public PasswordResetTokenSweeper(PasswordResetTokenRepository passwordResetTokenRepo,
+			PlatformTransactionManager transactionManager, AppProperties appProperties) {
+		this.passwordResetTokenRepo = passwordResetTokenRepo;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.chunkSize = appProperties.getPasswordResetSweepChunkSize();
+	}
+	
+	@Scheduled(fixedDelayString = "${passwordResetSweepInterval:60000}")
+	public int sweep() {
+		long start = System.nanoTime();
+		Date now = new Date();
+		int returnValue = 0;
+		
+		try {
+			int deleted;
+			do {
+				deleted = transactionTemplate.execute(status -> {
+					List<Long> ids = passwordResetTokenRepo.findExpiredIds(now, PageRequest.of(0, chunkSize));
+					return ids.isEmpty() ? 0 : passwordResetTokenRepo.deleteByIdIn(ids);
+				});
+				returnValue += deleted;
+				swept.add(deleted);
+			} while (deleted == chunkSize);
+		} finally {
+			Timer timer = sweepTimer;
+			if (timer != null) timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+		}
+		
+		return returnValue;
+	}
+	
+	public long getSweptCount() {
+		return swept.sum();
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		sweepTimer = Timer.builder("password.reset.sweep").register(registry);
+		FunctionCounter.builder("password.reset.swept", this, PasswordResetTokenSweeper::getSweptCount).register(registry);
+	}
+
+}
@@ -0,0 +1,217 @@
+package com.appsdeveloperblog.app.ws.service.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.appsdeveloperblog.app.ws.io.entity.UserEntity;
+import com.appsdeveloperblog.app.ws.io.repositories.UserRepository;
+import com.appsdeveloperblog.app.ws.security.AppProperties;
+import com.appsdeveloperblog.app.ws.security.PooledBCryptPasswordEncoder;
+import com.appsdeveloperblog.app.ws.service.UserImportService;
+import com.appsdeveloperblog.app.ws.shared.dto.AddressDto;
+import com.appsdeveloperblog.app.ws.shared.dto.ImportStatus;
+import com.appsdeveloperblog.app.ws.shared.dto.UserDto;
+import com.appsdeveloperblog.app.ws.shared.dto.UserImportResultDto;
+import com.appsdeveloperblog.app.ws.shared.mapper.DtoMapper;
+import com.appsdeveloperblog.app.ws.shared.utils.Utils;
+import com.appsdeveloperblog.app.ws.ui.model.response.ErrorMessages;
+
+// Imports users in chunks, each chunk committed in its own transaction with batched inserts
+@Service
+public class UserImportServiceImpl implements UserImportService {
+	
+	static final String EMAIL_CONSTRAINT = "uk_users_email";
+	
+	@Autowired
+	UserRepository userRepo;
+	
+	@Autowired
+	PooledBCryptPasswordEncoder passwordEncoder;
+	
+	@Autowired
+	Utils utils;
+	
+	@Autowired
+	DtoMapper dtoMapper;
+	
+	@Autowired
+	AppProperties appProperties;
+	
+	@Autowired
+	PlatformTransactionManager transactionManager;
+
+	@Override
+	public List<UserImportResultDto> importUsers(Iterator<UserDto> users) {
+		List<UserImportResultDto> returnValue = new ArrayList<>();
+		TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+		int chunkSize = appProperties.getImportChunkSize();
+		List<UserDto> chunk = new ArrayList<>(chunkSize);
+		
+		while (users.hasNext()) {
+			chunk.add(users.next());
+			
+			if (chunk.size() == chunkSize) {
+				importChunk(chunk, returnValue, transactionTemplate);
+				chunk.clear();
+			}
+		}
+		if (!chunk.isEmpty()) importChunk(chunk, returnValue, transactionTemplate);
+		
+		return returnValue;
+	}
+	
+	private void importChunk(List<UserDto> chunk, List<UserImportResultDto> results, TransactionTemplate transactionTemplate) {
+		int firstIndex = results.size();
+		Set<String> emails = new HashSet<>();
+		
+		for (int i = 0; i < chunk.size(); i++) {
+			UserDto user = chunk.get(i);
+			
+			ErrorMessages invalid = validate(user);
+			if (invalid != null) {
+				results.add(result(firstIndex + i, user, ImportStatus.INVALID, invalid));
+			} else if (!emails.add(user.getEmail())) {
+				results.add(result(firstIndex + i, user, ImportStatus.DUPLICATE, ErrorMessages.RECORD_ALREADY_EXISTS));
+			} else {
+				results.add(null);
+			}
+		}
+		
+		Set<String> existingEmails = emails.isEmpty() ? Collections.emptySet() : userRepo.findExistingEmails(emails);
+		List<UserDto> accepted = new ArrayList<>();
+		List<Integer> acceptedIndexes = new ArrayList<>();
+		List<String> rawPasswords = new ArrayList<>();
+		
+		for (int i = 0; i < chunk.size(); i++) {
+			UserDto user = chunk.get(i);
+			if (results.get(firstIndex + i) != null) continue;
+			
+			if (existingEmails.contains(user.getEmail())) {
+				results.set(firstIndex + i, result(firstIndex + i, user, ImportStatus.DUPLICATE, ErrorMessages.RECORD_ALREADY_EXISTS));
+			} else {
+				accepted.add(user);
+				acceptedIndexes.add(firstIndex + i);
+				rawPasswords.add(user.getPassword());
+			}
+		}
+		if (accepted.isEmpty()) return;
+		
+		List<String> encodedPasswords = passwordEncoder.encodeAll(rawPasswords);
+		for (int i = 0; i < accepted.size(); i++) {
+			UserDto user = accepted.get(i);
+			user.setUserId(utils.generateUserId());
+			user.setEncryptedPassword(encodedPasswords.get(i));
+			
+			if (user.getAddresses() != null) {
+				for (AddressDto address : user.getAddresses()) {
+					address.setAddressId(utils.generateAddressId());
+				}
+			}
+		}
+		
+		try {
+			transactionTemplate.executeWithoutResult(status -> save(accepted));
+			
+			for (int i = 0; i < accepted.size(); i++) {
+				results.set(acceptedIndexes.get(i), created(acceptedIndexes.get(i), accepted.get(i)));
+			}
+		} catch (DataIntegrityViolationException e) {
+			// Usually a concurrent sign up took one of the emails, so find the failing user by retrying one at a time
+			for (int i = 0; i < accepted.size(); i++) {
+				UserDto user = accepted.get(i);
+				int index = acceptedIndexes.get(i);
+				
+				try {
+					transactionTemplate.executeWithoutResult(status -> save(Collections.singletonList(user)));
+					results.set(index, created(index, user));
+				} catch (DataIntegrityViolationException violation) {
+					results.set(index, isDuplicateEmail(violation)
+							? result(index, user, ImportStatus.DUPLICATE, ErrorMessages.RECORD_ALREADY_EXISTS)
+							: result(index, user, ImportStatus.FAILED, ErrorMessages.COULD_NOT_CREATE_RECORD));
+				} catch (DataAccessException failure) {
+					results.set(index, result(index, user, ImportStatus.FAILED, ErrorMessages.COULD_NOT_CREATE_RECORD));
+				}
+			}
+		}
+	}
+	
+	// Entities are mapped inside the transaction so a retry never sees ids assigned by a rolled back attempt
+	private void save(List<UserDto> users) {
+		List<UserEntity> userEntities = new ArrayList<>(users.size());
+		for (UserDto user : users) {
+			userEntities.add(dtoMapper.toUserEntity(user));
+		}
+		
+		userRepo.saveAll(userEntities);
+	}
+	
+	// Checks what the users and addresses columns would reject, so a bad row is reported instead of failing its chunk
+	private static ErrorMessages validate(UserDto user) {
+		if (user == null || !hasText(user.getFirstName()) || !hasText(user.getLastName()) || !hasText(user.getEmail())
+				|| !hasText(user.getPassword())) {
+			return ErrorMessages.MISSING_REQUIRED_FIELD;
+		}
+		if (!fits(user.getFirstName(), 50) || !fits(user.getLastName(), 50) || !fits(user.getEmail(), 120)) {
+			return ErrorMessages.FIELD_TOO_LONG;
+		}
+		
+		if (user.getAddresses() != null) {
+			for (AddressDto address : user.getAddresses()) {
+				if (address == null || !hasText(address.getCity()) || !hasText(address.getCountry())
+						|| !hasText(address.getStreetName()) || !hasText(address.getPostalCode()) || !hasText(address.getType())) {
+					return ErrorMessages.MISSING_REQUIRED_FIELD;
+				}
+				if (!fits(address.getCity(), 15) || !fits(address.getCountry(), 15) || !fits(address.getStreetName(), 100)
+						|| !fits(address.getPostalCode(), 7) || !fits(address.getType(), 10)) {
+					return ErrorMessages.FIELD_TOO_LONG;
+				}
+			}
+		}
+		
+		return null;
+	}
+	
+	private static boolean hasText(String value) {
+		return value != null && !value.isEmpty();
+	}
+	
+	private static boolean fits(String value, int maxLength) {
+		return value.length() <= maxLength;
+	}
+	
+	private static boolean isDuplicateEmail(DataIntegrityViolationException e) {
+		for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+			if (cause instanceof ConstraintViolationException) {
+				String constraintName = ((ConstraintViolationException) cause).getConstraintName();
+				return constraintName != null && constraintName.toLowerCase(Locale.ROOT).contains(EMAIL_CONSTRAINT);
+			}
+		}
+		return false;
+	}
+	
+	private static UserImportResultDto created(int index, UserDto user) {
+		UserImportResultDto returnValue = new UserImportResultDto(index, user.getEmail(), ImportStatus.CREATED);
+		returnValue.setUserId(user.getUserId());
+		return returnValue;
+	}
+	
+	private static UserImportResultDto result(int index, UserDto user, ImportStatus status, ErrorMessages message) {
+		UserImportResultDto returnValue = new UserImportResultDto(index, user == null ? null : user.getEmail(), status);
+		returnValue.setMessage(message.getErrorMessage());
+		return returnValue;
+	}
+
+}
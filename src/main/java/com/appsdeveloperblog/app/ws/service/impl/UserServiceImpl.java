@@ -1,36 +1,54 @@
 package com.appsdeveloperblog.app.ws.service.impl;
 
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
-import javax.transaction.Transactional;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
 
-import org.modelmapper.ModelMapper;
-import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.appsdeveloperblog.app.ws.exceptions.InvalidRequestException;
 import com.appsdeveloperblog.app.ws.exceptions.UserServiceException;
-import com.appsdeveloperblog.app.ws.io.entity.PasswordResetTokenEntity;
+import com.appsdeveloperblog.app.ws.io.entity.AddressEntity;
 import com.appsdeveloperblog.app.ws.io.entity.UserEntity;
 import com.appsdeveloperblog.app.ws.io.repositories.PasswordResetTokenRepository;
 import com.appsdeveloperblog.app.ws.io.repositories.UserRepository;
+import com.appsdeveloperblog.app.ws.security.UserPrincipal;
+import com.appsdeveloperblog.app.ws.service.CacheNames;
 import com.appsdeveloperblog.app.ws.service.UserService;
 import com.appsdeveloperblog.app.ws.shared.dto.AddressDto;
 import com.appsdeveloperblog.app.ws.shared.dto.UserDto;
+import com.appsdeveloperblog.app.ws.shared.dto.UserPageDto;
+import com.appsdeveloperblog.app.ws.shared.mapper.DtoMapper;
 import com.appsdeveloperblog.app.ws.shared.utils.Utils;
 import com.appsdeveloperblog.app.ws.ui.model.response.ErrorMessages;
 
 @Service
 public class UserServiceImpl implements UserService{
 	
+	// Only the cursor endpoint is capped; offset paging keeps accepting any positive limit as it always has
+	static final int MAX_LIMIT = 100;
+	
 	@Autowired
 	UserRepository userRepo;
 	
@@ -44,64 +62,101 @@ public class UserServiceImpl implements UserService{
 	BCryptPasswordEncoder bCryptPasswordEncoder;
 	
 	@Autowired
-	ModelMapper modelMapper;
+	DtoMapper dtoMapper;
+	
+	@Autowired
+	CacheManager cacheManager;
+	
+	@Autowired
+	PasswordResetQueue passwordResetQueue;
+	
+	@PersistenceContext
+	EntityManager entityManager;
 	
 	@Override
 	public UserDto createUser(UserDto user) {
 		
-		if(userRepo.findByEmail(user.getEmail()) != null) throw new UserServiceException("Record already exists");
-		
-		for (int i = 0; i < user.getAddresses().size(); i++) {
-			AddressDto address = user.getAddresses().get(i);
-			address.setUserDetails(user);
-			address.setAddressId(utils.generateAddressId(30));
-			user.getAddresses().set(i, address);
+		for (AddressDto address : user.getAddresses()) {
+			address.setAddressId(utils.generateAddressId());
 		}
-		ModelMapper modelMapperTst = new ModelMapper();
-		UserEntity userEntity = modelMapperTst.map(user, UserEntity.class);
+		UserEntity userEntity = dtoMapper.toUserEntity(user);
 		
-		String publicUserId = utils.generateUserId(30);
+		String publicUserId = utils.generateUserId();
 		userEntity.setUserId(publicUserId);
 		userEntity.setEncryptedPassword(bCryptPasswordEncoder.encode(user.getPassword()));
 		
-		UserEntity storedUserDeatils = userRepo.save(userEntity);
+		// The unique constraint on email rejects duplicates, including concurrent sign ups
+		UserEntity storedUserDeatils;
+		try {
+			storedUserDeatils = userRepo.save(userEntity);
+		} catch (DataIntegrityViolationException e) {
+			throw new UserServiceException(ErrorMessages.RECORD_ALREADY_EXISTS.getErrorMessage());
+		}
+		evictUserCaches(storedUserDeatils);
 		
-		return modelMapperTst.map(storedUserDeatils, UserDto.class);
+		return dtoMapper.toUserDtoWithAddresses(storedUserDeatils);
 	}
 
+	// Not cached, since other nodes would keep accepting an old password, and read from the primary rather than
+	// a lagging replica, so a reset or delete applies to the very next login
+	@Transactional
 	@Override
 	public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
 		UserEntity userEntity = userRepo.findByEmail(email);
 		
 		if (userEntity == null) throw new UsernameNotFoundException(email);
 		
-		return new User(userEntity.getEmail(), userEntity.getEncryptedPassword(), new ArrayList<>());
+		return new UserPrincipal(userEntity);
 	}
 
+	@Override
+	public UserDetails updatePassword(UserDetails user, String newPassword) {
+		UserEntity userEntity = userRepo.findByEmail(user.getUsername());
+		
+		if (userEntity == null) throw new UsernameNotFoundException(user.getUsername());
+		
+		userEntity.setEncryptedPassword(newPassword);
+		
+		UserEntity updatedUserDetails = userRepo.save(userEntity);
+		evictUserCaches(updatedUserDetails);
+		
+		return new UserPrincipal(updatedUserDetails);
+	}
+
+	// Cached until the next write evicts it, so like every cached read it comes from the primary: a lagging
+	// replica read right after the eviction would be cached for the whole TTL
+	@Cacheable(CacheNames.USERS_BY_EMAIL)
+	@Transactional
 	@Override
 	public UserDto getUser(String email) {
 		UserEntity userEntity = userRepo.findByEmail(email);
 		
 		if (userEntity == null) throw new UsernameNotFoundException(email);
 		
-		UserDto returnValue = new UserDto();
-		BeanUtils.copyProperties(userEntity, returnValue);
-		
-		return returnValue;
+		return dtoMapper.toUserDto(userEntity);
 	}
 
+	@Cacheable(CacheNames.USERS)
+	@Transactional
 	@Override
 	public UserDto getUserByUserId(String id) {
-		UserEntity userEntity = userRepo.findByUserId(id);
+		UserEntity userEntity = userRepo.findWithAddressesByUserId(id);
 		
 		if (userEntity == null) throw new UsernameNotFoundException("User with ID: " + id + " not found");
 
-		return modelMapper.map(userEntity, UserDto.class);
+		return dtoMapper.toUserDtoWithAddresses(userEntity);
+	}
+
+	// ETags and If-Match are checked against this, so it reads the primary rather than a lagging replica
+	@Cacheable(cacheNames = CacheNames.USER_VERSIONS, unless = "#result == null")
+	@Transactional
+	@Override
+	public Long getUserVersion(String id) {
+		return userRepo.findVersionByUserId(id);
 	}
 
 	@Override
 	public UserDto updateUser(String id, UserDto userDto) {
-		UserDto returnValue = new UserDto();
 		UserEntity userEntity = userRepo.findByUserId(id);
 		
 		if (userEntity == null) throw new UserServiceException(ErrorMessages.NO_RECORD_FOUND.getErrorMessage());
@@ -110,86 +165,159 @@ public class UserServiceImpl implements UserService{
 		userEntity.setLastName(userDto.getLastName());
 		
 		UserEntity updatedUserDetails = userRepo.save(userEntity);
-		BeanUtils.copyProperties(updatedUserDetails, returnValue);
+		evictUserCaches(updatedUserDetails);
 		
-		return returnValue;
+		return dtoMapper.toUserDto(updatedUserDetails);
+	}
+
+	// Writes without loading the user first; a zero row count is either an unknown id or a stale version
+	@Transactional
+	@Override
+	public UserDto patchUser(String id, UserDto userDto, Long version) {
+		if (userDto.getFirstName() == null && userDto.getLastName() == null)
+			throw new UserServiceException(ErrorMessages.MISSING_REQUIRED_FIELD.getErrorMessage());
+		
+		if (userRepo.updateNames(id, version, userDto.getFirstName(), userDto.getLastName()) == 0) {
+			if (userRepo.findVersionByUserId(id) == null) throw new UserServiceException(ErrorMessages.NO_RECORD_FOUND.getErrorMessage());
+			
+			throw new OptimisticLockingFailureException(ErrorMessages.RECORD_MODIFIED.getErrorMessage());
+		}
+		
+		UserEntity userEntity = userRepo.findWithAddressesByUserId(id);
+		evictUserCaches(userEntity);
+		
+		return dtoMapper.toUserDtoWithAddresses(userEntity);
 	}
 
 	@Transactional
 	@Override
 	public void deleteUser(String id) {
-		UserEntity userEntity = userRepo.findByUserId(id);
+		// The cascade and the cache eviction both need the addresses, so load them with the user
+		UserEntity userEntity = userRepo.findWithAddressesByUserId(id);
 		
 		if (userEntity == null) throw new UserServiceException(ErrorMessages.NO_RECORD_FOUND.getErrorMessage());
 		
 		userRepo.delete(userEntity);
+		evictUserCaches(userEntity);
 	}
 
+	@Transactional(readOnly = true)
 	@Override
 	public List<UserDto> getUsers(int page, int limit) {
-		List<UserDto> returnValue = new ArrayList<>();
+		if (page < 0) throw new InvalidRequestException(ErrorMessages.INVALID_PAGE.getErrorMessage());
+		if (limit < 1) throw new InvalidRequestException(ErrorMessages.INVALID_LIMIT.getErrorMessage());
 		
 		Pageable pageableRequest = PageRequest.of(page, limit);
-		Page<UserEntity> usersPage = userRepo.findAll(pageableRequest);
-		List<UserEntity> users = usersPage.getContent();
 		
-		for (UserEntity userEntity : users) {
-			UserDto userDto = new UserDto();
-			BeanUtils.copyProperties(userEntity, userDto);
-			returnValue.add(userDto);
-		}
-		
-		return returnValue;
+		return userRepo.findAllDtosBy(pageableRequest);
 	}
 
+	@Transactional(readOnly = true)
 	@Override
-	public boolean requestPasswordReset(String email) {		
-		UserEntity userEntity = userRepo.findByEmail(email);
+	public UserPageDto getUsers(String cursor, int limit) {
+		if (limit < 1 || limit > MAX_LIMIT) throw new InvalidRequestException(ErrorMessages.INVALID_CURSOR_LIMIT.getErrorMessage());
 		
-		if (userEntity == null) {
-			return false;
-		}
+		UserPageDto returnValue = new UserPageDto();
 		
-		String token = utils.generatePasswordResetToken(userEntity.getUserId());
+		// One extra row tells whether there is a next page without a count query
+		List<UserDto> users = userRepo.findDtosByIdGreaterThan(decodeCursor(cursor), PageRequest.of(0, limit + 1));
 		
-		PasswordResetTokenEntity passwordResetTokenEntity = new PasswordResetTokenEntity();
-		passwordResetTokenEntity.setToken(token);
-		passwordResetTokenEntity.setUserDetails(userEntity);
-		try {
-			passwordResetTokenRepo.save(passwordResetTokenEntity);
-			return true;
-		} catch (Exception e) {
-			return false;
+		if (users.size() > limit) {
+			users.remove(limit);
+			returnValue.setNextCursor(encodeCursor(users.get(limit - 1).getId()));
+		}
+		returnValue.setUsers(users);
+		
+		return returnValue;
+	}
+
+	@Transactional(readOnly = true)
+	@Override
+	public void streamUsers(Consumer<UserDto> consumer) {
+		try (Stream<UserEntity> users = userRepo.streamAll()) {
+			users.forEach(userEntity -> {
+				consumer.accept(dtoMapper.toUserDto(userEntity));
+				entityManager.detach(userEntity);
+			});
 		}
 	}
 
+	// Tokens are created on a background worker, so unknown emails look the same as known ones to the caller
+	@Override
+	public boolean requestPasswordReset(String email) {
+		return passwordResetQueue.submit(email);
+	}
+
+	// The conditional delete consumes the token, so of two concurrent resets only one succeeds
+	@Transactional
 	@Override
 	public boolean resetPassword(String token, String password) {
-		boolean returnValue = false;
+		if (token == null) return false;
 		
-		if (utils.hasTokenExpired(token)) {
-			return returnValue;
-		}
+		String tokenHash = utils.hashPasswordResetToken(token);
+		Date now = new Date();
+		
+		UserEntity userEntity = passwordResetTokenRepo.findUserByValidTokenHash(tokenHash, now);
+		if (userEntity == null) return false;
 		
-		PasswordResetTokenEntity passwordResetTokenEntity = passwordResetTokenRepo.findByToken(token);
+		String encodedPassword = bCryptPasswordEncoder.encode(password);
+		
+		if (passwordResetTokenRepo.deleteValidByTokenHash(tokenHash, now) == 0) return false;
+		
+		userEntity.setEncryptedPassword(encodedPassword);
+		evictUserCaches(userEntity);
 		
-		if (passwordResetTokenEntity == null) {
-			return returnValue;
+		return true;
+	}
+
+	// Evicts again after commit so a read racing the transaction cannot re-cache the old row
+	private void evictUserCaches(UserEntity userEntity) {
+		List<String> addressIds = new ArrayList<>();
+		if (userEntity.getAddresses() != null) {
+			for (AddressEntity addressEntity : userEntity.getAddresses()) {
+				addressIds.add(addressEntity.getAddressId());
+			}
 		}
 		
-		String encodedPassword = bCryptPasswordEncoder.encode(password);
+		Runnable evict = () -> {
+			evict(CacheNames.USERS, userEntity.getUserId());
+			evict(CacheNames.USERS_BY_EMAIL, userEntity.getEmail());
+			evict(CacheNames.USER_ADDRESSES, userEntity.getUserId());
+			evict(CacheNames.USER_VERSIONS, userEntity.getUserId());
+			for (String addressId : addressIds) {
+				evict(CacheNames.ADDRESSES, addressId);
+			}
+		};
 		
-		UserEntity userEntity = passwordResetTokenEntity.getUserDetails();
-        userEntity.setEncryptedPassword(encodedPassword);
-        UserEntity savedUserEntity = userRepo.save(userEntity);
-        
-        if (savedUserEntity != null && savedUserEntity.getEncryptedPassword().equalsIgnoreCase(encodedPassword)) {
-        	returnValue = true;
-        }
-        
-        passwordResetTokenRepo.delete(passwordResetTokenEntity);
-        
-		return returnValue;
+		evict.run();
+		
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCompletion(int status) {
+					evict.run();
+				}
+			});
+		}
+	}
+	
+	private void evict(String cacheName, String key) {
+		Cache cache = cacheManager.getCache(cacheName);
+		if (cache != null && key != null) cache.evict(key);
+	}
+
+	private static String encodeCursor(long id) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(Long.toString(id).getBytes(StandardCharsets.US_ASCII));
+	}
+	
+	private static long decodeCursor(String cursor) {
+		if (cursor == null || cursor.isEmpty()) return 0;
+		
+		try {
+			return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII));
+		} catch (IllegalArgumentException e) {
+			throw new InvalidRequestException(ErrorMessages.INVALID_CURSOR.getErrorMessage());
+		}
 	}
 
 }
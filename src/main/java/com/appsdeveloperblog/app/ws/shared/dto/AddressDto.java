@@ -10,6 +10,20 @@ public class AddressDto {
 	private String type;
 	private UserDto userDetails;
 	
+	public AddressDto() {
+	}
+	
+	public AddressDto(long id, String addressId, String city, String country, String streetName, String postalCode,
+			String type) {
+		this.id = id;
+		this.addressId = addressId;
+		this.city = city;
+		this.country = country;
+		this.streetName = streetName;
+		this.postalCode = postalCode;
+		this.type = type;
+	}
+	
 	public long getId() {
 		return id;
 	}
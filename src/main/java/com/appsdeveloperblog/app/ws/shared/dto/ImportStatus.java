@@ -0,0 +1,8 @@
+package com.appsdeveloperblog.app.ws.shared.dto;
+
+public enum ImportStatus {
+	CREATED,
+	DUPLICATE,
+	INVALID,
+	FAILED
+}
@@ -17,8 +17,20 @@ public class UserDto implements Serializable {
 	private String encryptedPassword;
 	private String emailVerificationToken;
 	private Boolean emailVerificationStatus = false;
+	private long version;
 	private List<AddressDto> addresses;
 	
+	public UserDto() {
+	}
+	
+	public UserDto(long id, String userId, String firstName, String lastName, String email) {
+		this.id = id;
+		this.userId = userId;
+		this.firstName = firstName;
+		this.lastName = lastName;
+		this.email = email;
+	}
+	
 	public long getId() {
 		return id;
 	}
@@ -79,5 +91,10 @@ public class UserDto implements Serializable {
 	public void setAddresses(List<AddressDto> addresses) {
 		this.addresses = addresses;
 	}
-	
+	public long getVersion() {
+		return version;
+	}
+	public void setVersion(long version) {
+		this.version = version;
+	}
 }
@@ -0,0 +1,49 @@
+package com.appsdeveloperblog.app.ws.shared.dto;
+
+public class UserImportResultDto {
+	private int index;
+	private String email;
+	private String userId;
+	private ImportStatus status;
+	private String message;
+	
+	public UserImportResultDto() {
+	}
+	
+	public UserImportResultDto(int index, String email, ImportStatus status) {
+		this.index = index;
+		this.email = email;
+		this.status = status;
+	}
+	
+	public int getIndex() {
+		return index;
+	}
+	public void setIndex(int index) {
+		this.index = index;
+	}
+	public String getEmail() {
+		return email;
+	}
+	public void setEmail(String email) {
+		this.email = email;
+	}
+	public String getUserId() {
+		return userId;
+	}
+	public void setUserId(String userId) {
+		this.userId = userId;
+	}
+	public ImportStatus getStatus() {
+		return status;
+	}
+	public void setStatus(ImportStatus status) {
+		this.status = status;
+	}
+	public String getMessage() {
+		return message;
+	}
+	public void setMessage(String message) {
+		this.message = message;
+	}
+}
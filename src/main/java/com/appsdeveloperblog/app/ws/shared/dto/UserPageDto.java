@@ -0,0 +1,21 @@
+package com.appsdeveloperblog.app.ws.shared.dto;
+
+import java.util.List;
+
+public class UserPageDto {
+	private List<UserDto> users;
+	private String nextCursor;
+	
+	public List<UserDto> getUsers() {
+		return users;
+	}
+	public void setUsers(List<UserDto> users) {
+		this.users = users;
+	}
+	public String getNextCursor() {
+		return nextCursor;
+	}
+	public void setNextCursor(String nextCursor) {
+		this.nextCursor = nextCursor;
+	}
+}
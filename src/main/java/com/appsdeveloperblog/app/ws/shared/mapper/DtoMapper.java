@@ -0,0 +1,205 @@
+package com.appsdeveloperblog.app.ws.shared.mapper;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import com.appsdeveloperblog.app.ws.io.entity.AddressEntity;
+import com.appsdeveloperblog.app.ws.io.entity.UserEntity;
+import com.appsdeveloperblog.app.ws.shared.dto.AddressDto;
+import com.appsdeveloperblog.app.ws.shared.dto.UserDto;
+import com.appsdeveloperblog.app.ws.shared.dto.UserImportResultDto;
+import com.appsdeveloperblog.app.ws.ui.model.request.AddressRequestModel;
+import com.appsdeveloperblog.app.ws.ui.model.request.UserDetailsRequestModel;
+import com.appsdeveloperblog.app.ws.ui.model.response.AddressesRest;
+import com.appsdeveloperblog.app.ws.ui.model.response.UserImportResultRest;
+import com.appsdeveloperblog.app.ws.ui.model.response.UserRest;
+
+// Plain field copies between entities, DTOs and REST models; no reflection on the request path
+@Component
+public class DtoMapper {
+
+	public UserDto toUserDto(UserDetailsRequestModel userDetails) {
+		if (userDetails == null) return null;
+		
+		UserDto userDto = new UserDto();
+		userDto.setFirstName(userDetails.getFirstName());
+		userDto.setLastName(userDetails.getLastName());
+		userDto.setEmail(userDetails.getEmail());
+		userDto.setPassword(userDetails.getPassword());
+		
+		if (userDetails.getAddresses() != null) {
+			List<AddressDto> addresses = new ArrayList<>(userDetails.getAddresses().size());
+			for (AddressRequestModel address : userDetails.getAddresses()) {
+				addresses.add(toAddressDto(address));
+			}
+			userDto.setAddresses(addresses);
+		}
+		
+		return userDto;
+	}
+	
+	public UserDto toUserDto(UserEntity userEntity) {
+		if (userEntity == null) return null;
+		
+		UserDto userDto = new UserDto();
+		userDto.setId(userEntity.getId());
+		userDto.setUserId(userEntity.getUserId());
+		userDto.setFirstName(userEntity.getFirstName());
+		userDto.setLastName(userEntity.getLastName());
+		userDto.setEmail(userEntity.getEmail());
+		userDto.setEncryptedPassword(userEntity.getEncryptedPassword());
+		userDto.setEmailVerificationToken(userEntity.getEmailVerificationToken());
+		userDto.setEmailVerificationStatus(userEntity.getEmailVerificationStatus());
+		userDto.setVersion(userEntity.getVersion());
+		
+		return userDto;
+	}
+	
+	public UserDto toUserDtoWithAddresses(UserEntity userEntity) {
+		UserDto userDto = toUserDto(userEntity);
+		
+		if (userDto != null && userEntity.getAddresses() != null) {
+			List<AddressDto> addresses = new ArrayList<>(userEntity.getAddresses().size());
+			for (AddressEntity addressEntity : userEntity.getAddresses()) {
+				AddressDto addressDto = toAddressDto(addressEntity);
+				addressDto.setUserDetails(userDto);
+				addresses.add(addressDto);
+			}
+			userDto.setAddresses(addresses);
+		}
+		
+		return userDto;
+	}
+	
+	public UserEntity toUserEntity(UserDto userDto) {
+		if (userDto == null) return null;
+		
+		UserEntity userEntity = new UserEntity();
+		userEntity.setId(userDto.getId());
+		userEntity.setUserId(userDto.getUserId());
+		userEntity.setFirstName(userDto.getFirstName());
+		userEntity.setLastName(userDto.getLastName());
+		userEntity.setEmail(userDto.getEmail());
+		userEntity.setEncryptedPassword(userDto.getEncryptedPassword());
+		userEntity.setEmailVerificationToken(userDto.getEmailVerificationToken());
+		userEntity.setEmailVerificationStatus(userDto.getEmailVerificationStatus());
+		
+		if (userDto.getAddresses() != null) {
+			List<AddressEntity> addresses = new ArrayList<>(userDto.getAddresses().size());
+			for (AddressDto addressDto : userDto.getAddresses()) {
+				AddressEntity addressEntity = toAddressEntity(addressDto);
+				addressEntity.setUserDetails(userEntity);
+				addresses.add(addressEntity);
+			}
+			userEntity.setAddresses(addresses);
+		}
+		
+		return userEntity;
+	}
+	
+	public UserRest toUserRest(UserDto userDto) {
+		if (userDto == null) return null;
+		
+		UserRest userRest = new UserRest();
+		userRest.setUserId(userDto.getUserId());
+		userRest.setFirstName(userDto.getFirstName());
+		userRest.setLastName(userDto.getLastName());
+		userRest.setEmail(userDto.getEmail());
+		
+		if (userDto.getAddresses() != null) {
+			userRest.setAddresses(toAddressesRest(userDto.getAddresses()));
+		}
+		
+		return userRest;
+	}
+	
+	public List<UserRest> toUserRest(List<UserDto> users) {
+		List<UserRest> returnValue = new ArrayList<>(users.size());
+		
+		for (UserDto userDto : users) {
+			returnValue.add(toUserRest(userDto));
+		}
+		
+		return returnValue;
+	}
+	
+	public AddressDto toAddressDto(AddressRequestModel address) {
+		if (address == null) return null;
+		
+		AddressDto addressDto = new AddressDto();
+		addressDto.setCity(address.getCity());
+		addressDto.setCountry(address.getCountry());
+		addressDto.setStreetName(address.getStreetName());
+		addressDto.setPostalCode(address.getPostalCode());
+		addressDto.setType(address.getType());
+		
+		return addressDto;
+	}
+	
+	public AddressDto toAddressDto(AddressEntity addressEntity) {
+		if (addressEntity == null) return null;
+		
+		AddressDto addressDto = new AddressDto();
+		addressDto.setId(addressEntity.getId());
+		addressDto.setAddressId(addressEntity.getAddressId());
+		addressDto.setCity(addressEntity.getCity());
+		addressDto.setCountry(addressEntity.getCountry());
+		addressDto.setStreetName(addressEntity.getStreetName());
+		addressDto.setPostalCode(addressEntity.getPostalCode());
+		addressDto.setType(addressEntity.getType());
+		
+		return addressDto;
+	}
+	
+	public AddressEntity toAddressEntity(AddressDto addressDto) {
+		if (addressDto == null) return null;
+		
+		AddressEntity addressEntity = new AddressEntity();
+		addressEntity.setId(addressDto.getId());
+		addressEntity.setAddressId(addressDto.getAddressId());
+		addressEntity.setCity(addressDto.getCity());
+		addressEntity.setCountry(addressDto.getCountry());
+		addressEntity.setStreetName(addressDto.getStreetName());
+		addressEntity.setPostalCode(addressDto.getPostalCode());
+		addressEntity.setType(addressDto.getType());
+		
+		return addressEntity;
+	}
+	
+	public AddressesRest toAddressesRest(AddressDto addressDto) {
+		if (addressDto == null) return null;
+		
+		AddressesRest addressesRest = new AddressesRest();
+		addressesRest.setAddressId(addressDto.getAddressId());
+		addressesRest.setCity(addressDto.getCity());
+		addressesRest.setCountry(addressDto.getCountry());
+		addressesRest.setStreetName(addressDto.getStreetName());
+		addressesRest.setPostalCode(addressDto.getPostalCode());
+		addressesRest.setType(addressDto.getType());
+		
+		return addressesRest;
+	}
+	
+	public List<AddressesRest> toAddressesRest(List<AddressDto> addresses) {
+		List<AddressesRest> returnValue = new ArrayList<>(addresses.size());
+		
+		for (AddressDto addressDto : addresses) {
+			returnValue.add(toAddressesRest(addressDto));
+		}
+		
+		return returnValue;
+	}
+	
+	public UserImportResultRest toUserImportResultRest(UserImportResultDto result) {
+		UserImportResultRest returnValue = new UserImportResultRest();
+		returnValue.setIndex(result.getIndex());
+		returnValue.setEmail(result.getEmail());
+		returnValue.setUserId(result.getUserId());
+		returnValue.setStatus(result.getStatus().name());
+		returnValue.setMessage(result.getMessage());
+		
+		return returnValue;
+	}
+}
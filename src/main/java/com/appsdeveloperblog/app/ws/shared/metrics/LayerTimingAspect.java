@@ -0,0 +1,100 @@
+package com.appsdeveloperblog.app.ws.shared.metrics;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+// Times every public call into the controllers, services, repositories and the DTO mapper, tagged by layer,
+// class, method and outcome. Success timers are looked up once per method; failures are rare enough to build each time.
+@Aspect
+@Component
+public class LayerTimingAspect implements MeterBinder {
+
+	static final String LAYER_TIMER = "layer.calls";
+	static final String MAPPING_TIMER = "dto.mapping";
+
+	private final Map<Class<?>, Map<Method, Timer>> timers = new ConcurrentHashMap<>();
+
+	private volatile MeterRegistry registry;
+
+	@Around("execution(public * *(..)) && within(@org.springframework.web.bind.annotation.RestController *)")
+	public Object timeController(ProceedingJoinPoint joinPoint) throws Throwable {
+		return time(joinPoint, LAYER_TIMER, "controller");
+	}
+
+	@Around("execution(public * *(..)) && within(@org.springframework.stereotype.Service *)")
+	public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+		return time(joinPoint, LAYER_TIMER, "service");
+	}
+
+	@Around("execution(* org.springframework.data.repository.Repository+.*(..))")
+	public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+		return time(joinPoint, LAYER_TIMER, "repository");
+	}
+
+	@Around("execution(public * com.appsdeveloperblog.app.ws.shared.mapper.DtoMapper.*(..))")
+	public Object timeMapping(ProceedingJoinPoint joinPoint) throws Throwable {
+		return time(joinPoint, MAPPING_TIMER, "mapping");
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		this.registry = registry;
+	}
+
+	private Object time(ProceedingJoinPoint joinPoint, String name, String layer) throws Throwable {
+		MeterRegistry registry = this.registry;
+		if (registry == null) return joinPoint.proceed();
+
+		long start = System.nanoTime();
+		Object returnValue;
+		try {
+			returnValue = joinPoint.proceed();
+		} catch (Throwable e) {
+			timer(registry, name, layer, joinPoint, "error", e.getClass().getSimpleName())
+					.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+			throw e;
+		}
+
+		Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+		timers.computeIfAbsent(joinPoint.getTarget().getClass(), type -> new ConcurrentHashMap<>())
+				.computeIfAbsent(method, m -> timer(registry, name, layer, joinPoint, "success", "none"))
+				.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+		return returnValue;
+	}
+
+	private static Timer timer(MeterRegistry registry, String name, String layer, ProceedingJoinPoint joinPoint,
+			String outcome, String exception) {
+		return Timer.builder(name)
+				.tag("layer", layer)
+				.tag("class", className(joinPoint.getTarget()))
+				.tag("method", joinPoint.getSignature().getName())
+				.tag("outcome", outcome)
+				.tag("exception", exception)
+				.register(registry);
+	}
+
+	// Repositories are JDK proxies; their repository interface names them
+	private static String className(Object target) {
+		if (Proxy.isProxyClass(target.getClass())) {
+			Class<?>[] interfaces = AopProxyUtils.proxiedUserInterfaces(target);
+			if (interfaces.length > 0) return interfaces[0].getSimpleName();
+		}
+		return ClassUtils.getUserClass(target).getSimpleName();
+	}
+}
@@ -0,0 +1,8 @@
+package com.appsdeveloperblog.app.ws.shared.utils;
+
+// Produces the public identifiers exposed in URLs for users and addresses
+public interface PublicIdGenerator {
+	
+	String generate();
+
+}
@@ -0,0 +1,29 @@
+package com.appsdeveloperblog.app.ws.shared.utils;
+
+import java.security.SecureRandom;
+import java.util.Random;
+
+// The original letters-only identifiers; every call contends on one SecureRandom
+public class RandomStringIdGenerator implements PublicIdGenerator {
+	
+	private static final String ALPHABET = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ";
+	
+	private final Random random = new SecureRandom();
+	private final int length;
+	
+	public RandomStringIdGenerator(int length) {
+		this.length = length;
+	}
+
+	@Override
+	public String generate() {
+		StringBuilder returnValue = new StringBuilder(length);
+		
+		for (int i = 0; i < length; i++) {
+			returnValue.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+		}
+		
+		return new String(returnValue);
+	}
+
+}
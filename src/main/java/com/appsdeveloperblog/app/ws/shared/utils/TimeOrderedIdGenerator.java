@@ -0,0 +1,52 @@
+package com.appsdeveloperblog.app.ws.shared.utils;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+
+// ULID layout: 48 bits of epoch millis followed by 80 random bits, written as 22 base-62 characters.
+// The alphabet is in ASCII order, so ids compare by creation time character by character, as String.compareTo does.
+// A database index only keeps that order under a binary collation such as "C"; the default locale collations
+// rank letters case-insensitively first, so the user_id and address_id indexes are not ordered by creation time.
+public class TimeOrderedIdGenerator implements PublicIdGenerator {
+	
+	static final int LENGTH = 22;
+	
+	private static final char[] ALPHABET = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz".toCharArray();
+	
+	// One generator per thread so concurrent sign ups never share a lock
+	private static final ThreadLocal<SecureRandom> ENTROPY = ThreadLocal.withInitial(() -> {
+		try {
+			return SecureRandom.getInstance("SHA1PRNG");
+		} catch (NoSuchAlgorithmException e) {
+			return new SecureRandom();
+		}
+	});
+
+	@Override
+	public String generate() {
+		SecureRandom random = ENTROPY.get();
+		long high = (System.currentTimeMillis() << 16) | (random.nextInt() & 0xFFFFL);
+		long low = random.nextLong();
+		
+		return encode(high, low);
+	}
+	
+	static String encode(long high, long low) {
+		// The 128-bit value as four unsigned 32-bit limbs, most significant first
+		long[] limbs = { high >>> 32, high & 0xFFFFFFFFL, low >>> 32, low & 0xFFFFFFFFL };
+		char[] returnValue = new char[LENGTH];
+		
+		for (int i = LENGTH - 1; i >= 0; i--) {
+			long remainder = 0;
+			for (int j = 0; j < limbs.length; j++) {
+				long value = (remainder << 32) | limbs[j];
+				limbs[j] = value / ALPHABET.length;
+				remainder = value % ALPHABET.length;
+			}
+			returnValue[i] = ALPHABET[(int) remainder];
+		}
+		
+		return new String(returnValue);
+	}
+
+}
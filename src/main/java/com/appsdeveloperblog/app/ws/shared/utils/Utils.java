@@ -1,65 +1,49 @@
 package com.appsdeveloperblog.app.ws.shared.utils;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
-import java.util.Date;
-import java.util.Random;
+import java.util.Base64;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import com.appsdeveloperblog.app.ws.security.SecurityConstants;
-
-import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-
 @Component
 public class Utils {
 	
-	private final Random RADNOM = new SecureRandom();
-	private final String ALPHABET = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ";
+	private static final int PASSWORD_RESET_TOKEN_BYTES = 32;
+	
+	private static final SecureRandom RANDOM = new SecureRandom();
+	private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+	
+	private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	});
 	
-	public String generateUserId(int length) {
-		return generateRandomString(length);
+	@Autowired
+	PublicIdGenerator publicIdGenerator;
+	
+	public String generateUserId() {
+		return publicIdGenerator.generate();
 	}
 	
-	public String generateAddressId(int length) {
-		return generateRandomString(length);
+	public String generateAddressId() {
+		return publicIdGenerator.generate();
 	}
 	
-	private String generateRandomString(int length) {
-		StringBuilder returnValue = new StringBuilder(length);
-		
-		for (int i = 0; i < length; i++) {
-			returnValue.append(ALPHABET.charAt(RADNOM.nextInt(ALPHABET.length())));
-		}
-		
-		return new String(returnValue);
+	public String generatePasswordResetToken() {
+		byte[] bytes = new byte[PASSWORD_RESET_TOKEN_BYTES];
+		RANDOM.nextBytes(bytes);
+		return ENCODER.encodeToString(bytes);
 	}
 	
-	public String generatePasswordResetToken(String userId)
-    {
-        return Jwts.builder()
-                .setSubject(userId)
-                .setExpiration(new Date(System.currentTimeMillis() + SecurityConstants.PASSWORD_RESET_EXPIRATION_TIME))
-                .signWith(SignatureAlgorithm.HS512, SecurityConstants.getTokenSecret())
-                .compact();
-    }
-
-	public boolean hasTokenExpired(String token) {
-		boolean returnValue = false;
-		
-		try {
-			Claims claims = Jwts.parser().setSigningKey(SecurityConstants.getTokenSecret()).parseClaimsJws(token)
-						.getBody();
-			
-			Date tokenExpirationDate = claims.getExpiration();
-			Date todayDate = new Date();
-			
-			returnValue = tokenExpirationDate.before(todayDate);
-		} catch (Exception e) {
-			returnValue = true;
-		}
-		
-		return returnValue;
+	// Fixed 43 character digest; the raw token is never stored
+	public String hashPasswordResetToken(String token) {
+		return ENCODER.encodeToString(SHA_256.get().digest(token.getBytes(StandardCharsets.UTF_8)));
 	}
 }
@@ -0,0 +1,56 @@
+package com.appsdeveloperblog.app.ws.ui.controllers;
+
+import java.util.List;
+
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+
+import com.appsdeveloperblog.app.ws.ui.model.response.AddressesRest;
+
+// Same links as linkTo(methodOn(UserController.class)...), expanded by concatenation from the servlet mapping of the request
+@Component
+public class AddressLinks {
+	
+	static final String USERS_PATH = UserController.class.getAnnotation(RequestMapping.class).value()[0];
+	static final String ADDRESSES_PATH = "/addresses";
+	
+	public void addLinks(AddressesRest address, String userId) {
+		String userUri = userUri(userId);
+		
+		addLinks(address, userUri, new Link(userUri, "user"), new Link(userUri + ADDRESSES_PATH, "addresses"));
+	}
+	
+	// The base URI and the user and addresses links are shared by all items
+	public void addLinks(List<AddressesRest> addresses, String userId) {
+		if (addresses.isEmpty()) return;
+		
+		String userUri = userUri(userId);
+		Link userLink = new Link(userUri, "user");
+		Link addressesLink = new Link(userUri + ADDRESSES_PATH, "addresses");
+		
+		for (AddressesRest address : addresses) {
+			addLinks(address, userUri, userLink, addressesLink);
+		}
+	}
+	
+	private static void addLinks(AddressesRest address, String userUri, Link userLink, Link addressesLink) {
+		String addressUri = userUri + ADDRESSES_PATH + "/" + encode(address.getAddressId());
+		
+		address.add(new Link(addressUri, IanaLinkRelations.SELF));
+		address.add(userLink);
+		address.add(addressesLink);
+	}
+	
+	private static String userUri(String userId) {
+		return ServletUriComponentsBuilder.fromCurrentServletMapping().toUriString() + USERS_PATH + "/" + encode(userId);
+	}
+	
+	private static String encode(String pathSegment) {
+		return UriUtils.encodePathSegment(pathSegment, "UTF-8");
+	}
+
+}
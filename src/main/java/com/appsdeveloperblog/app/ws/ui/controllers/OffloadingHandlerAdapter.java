@@ -0,0 +1,66 @@
+package com.appsdeveloperblog.app.ws.ui.controllers;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.context.request.async.WebAsyncTask;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.ServletInvocableHandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+// Runs argument resolution and the handler of the given controllers as a Callable on the MVC async executor,
+// so the container thread is released while the handler blocks on JDBC or BCrypt.
+// The return value is written on the async dispatch exactly as if the handler had run inline.
+public class OffloadingHandlerAdapter extends RequestMappingHandlerAdapter {
+	
+	private final Set<Class<?>> controllers;
+	
+	public OffloadingHandlerAdapter(Class<?>... controllers) {
+		this.controllers = new HashSet<>(Arrays.asList(controllers));
+	}
+	
+	@Override
+	protected ServletInvocableHandlerMethod createInvocableHandlerMethod(HandlerMethod handlerMethod) {
+		if (!controllers.contains(handlerMethod.getBeanType()) || isAsync(handlerMethod.getReturnType().getParameterType())) {
+			return super.createInvocableHandlerMethod(handlerMethod);
+		}
+		return new OffloadedHandlerMethod(handlerMethod);
+	}
+	
+	// Handlers that already hand their work to the async executor are left alone
+	static boolean isAsync(Class<?> returnType) {
+		return Callable.class.isAssignableFrom(returnType) || WebAsyncTask.class.isAssignableFrom(returnType)
+				|| DeferredResult.class.isAssignableFrom(returnType) || ResponseBodyEmitter.class.isAssignableFrom(returnType)
+				|| StreamingResponseBody.class.isAssignableFrom(returnType);
+	}
+	
+	private static class OffloadedHandlerMethod extends ServletInvocableHandlerMethod {
+		
+		OffloadedHandlerMethod(HandlerMethod handlerMethod) {
+			super(handlerMethod);
+		}
+		
+		// The Callable is picked up by the Callable return value handler because it looks at the actual return value.
+		// The adapter completes its ServletWebRequest once this returns, so the arguments are resolved against a new one;
+		// the request and security contexts are bound on the executor thread by the usual Callable interceptors.
+		@Override
+		public Object invokeForRequest(NativeWebRequest request, ModelAndViewContainer mavContainer, Object... providedArgs) {
+			HttpServletRequest servletRequest = request.getNativeRequest(HttpServletRequest.class);
+			HttpServletResponse servletResponse = request.getNativeResponse(HttpServletResponse.class);
+			
+			return (Callable<Object>) () -> super.invokeForRequest(new ServletWebRequest(servletRequest, servletResponse),
+					mavContainer, providedArgs);
+		}
+	}
+}
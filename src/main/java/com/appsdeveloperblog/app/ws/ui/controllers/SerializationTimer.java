@@ -0,0 +1,113 @@
+package com.appsdeveloperblog.app.ws.ui.controllers;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.core.MethodParameter;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.RequestEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.AsyncHandlerMethodReturnValueHandler;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+// Times content negotiation and the message converter write of @ResponseBody and ResponseEntity return values
+// per handler method, apart from the handler itself. Offloaded handlers are timed on their async dispatch.
+@Component
+public class SerializationTimer implements MeterBinder, SmartInitializingSingleton {
+
+	private final ObjectProvider<RequestMappingHandlerAdapter> handlerAdapter;
+
+	private final Map<Method, Timer> timers = new ConcurrentHashMap<>();
+
+	private volatile MeterRegistry registry;
+
+	// The adapter is looked up once everything is created; the meter registry binds this early, while MVC may be mid-creation
+	public SerializationTimer(ObjectProvider<RequestMappingHandlerAdapter> requestMappingHandlerAdapter) {
+		this.handlerAdapter = requestMappingHandlerAdapter;
+	}
+
+	@Override
+	public void afterSingletonsInstantiated() {
+		RequestMappingHandlerAdapter handlerAdapter = this.handlerAdapter.getIfUnique();
+		if (handlerAdapter == null) return;
+		
+		List<HandlerMethodReturnValueHandler> handlers = new ArrayList<>();
+		for (HandlerMethodReturnValueHandler handler : handlerAdapter.getReturnValueHandlers()) {
+			boolean async = handler instanceof AsyncHandlerMethodReturnValueHandler;
+			handlers.add(async ? handler : new TimedReturnValueHandler(handler));
+		}
+		handlerAdapter.setReturnValueHandlers(handlers);
+	}
+	
+	// The same return values RequestResponseBodyMethodProcessor and HttpEntityMethodProcessor write; those are usually
+	// hidden behind a HATEOAS delegate, so the return type is checked rather than the handler
+	static boolean writesBody(MethodParameter returnType) {
+		Class<?> type = returnType.getParameterType();
+		if (OffloadingHandlerAdapter.isAsync(type)) return false;
+		
+		return HttpEntity.class.isAssignableFrom(type) && !RequestEntity.class.isAssignableFrom(type)
+				|| AnnotatedElementUtils.hasAnnotation(returnType.getContainingClass(), ResponseBody.class)
+				|| returnType.hasMethodAnnotation(ResponseBody.class);
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		this.registry = registry;
+	}
+
+	private void record(MethodParameter returnType, long start) {
+		MeterRegistry registry = this.registry;
+		if (registry == null || returnType.getMethod() == null) return;
+
+		timers.computeIfAbsent(returnType.getMethod(), method -> Timer.builder("http.response.serialization")
+				.tag("class", method.getDeclaringClass().getSimpleName())
+				.tag("method", method.getName())
+				.register(registry))
+				.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+	}
+
+	private class TimedReturnValueHandler implements HandlerMethodReturnValueHandler {
+
+		private final HandlerMethodReturnValueHandler delegate;
+
+		TimedReturnValueHandler(HandlerMethodReturnValueHandler delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public boolean supportsReturnType(MethodParameter returnType) {
+			return delegate.supportsReturnType(returnType);
+		}
+
+		@Override
+		public void handleReturnValue(Object returnValue, MethodParameter returnType, ModelAndViewContainer mavContainer,
+				NativeWebRequest webRequest) throws Exception {
+			if (!writesBody(returnType)) {
+				delegate.handleReturnValue(returnValue, returnType, mavContainer, webRequest);
+				return;
+			}
+			
+			long start = System.nanoTime();
+			try {
+				delegate.handleReturnValue(returnValue, returnType, mavContainer, webRequest);
+			} finally {
+				record(returnType, start);
+			}
+		}
+	}
+}
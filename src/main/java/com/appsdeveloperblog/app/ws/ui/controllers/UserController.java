@@ -1,30 +1,44 @@
 package com.appsdeveloperblog.app.ws.ui.controllers;
 
-import java.lang.reflect.Type;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.StreamSupport;
 
-import org.modelmapper.ModelMapper;
-import org.modelmapper.TypeToken;
-import org.springframework.beans.BeanUtils;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.hateoas.Link;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.appsdeveloperblog.app.ws.exceptions.UserServiceException;
 import com.appsdeveloperblog.app.ws.service.AddressService;
+import com.appsdeveloperblog.app.ws.service.UserImportService;
 import com.appsdeveloperblog.app.ws.service.UserService;
 import com.appsdeveloperblog.app.ws.shared.dto.AddressDto;
 import com.appsdeveloperblog.app.ws.shared.dto.UserDto;
+import com.appsdeveloperblog.app.ws.shared.dto.UserImportResultDto;
+import com.appsdeveloperblog.app.ws.shared.dto.UserPageDto;
+import com.appsdeveloperblog.app.ws.shared.mapper.DtoMapper;
 import com.appsdeveloperblog.app.ws.ui.model.request.PasswordResetModel;
 import com.appsdeveloperblog.app.ws.ui.model.request.PasswordResetRequestModel;
 import com.appsdeveloperblog.app.ws.ui.model.request.UserDetailsRequestModel;
@@ -33,122 +47,198 @@ import com.appsdeveloperblog.app.ws.ui.model.response.ErrorMessages;
 import com.appsdeveloperblog.app.ws.ui.model.response.OperationStatusModel;
 import com.appsdeveloperblog.app.ws.ui.model.response.RequestOperationName;
 import com.appsdeveloperblog.app.ws.ui.model.response.RequestOperationStatus;
+import com.appsdeveloperblog.app.ws.ui.model.response.UserImportResultRest;
 import com.appsdeveloperblog.app.ws.ui.model.response.UserRest;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
-import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
 
 @RestController
 @RequestMapping("/users")
 public class UserController {
+	
+	public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
 
 	private UserService userService;
 
 	private AddressService addressesService;
 
-	private ModelMapper modelMapper;
+	private DtoMapper dtoMapper;
+	
+	private UserImportService userImportService;
+	
+	private AddressLinks addressLinks;
+	
+	private ObjectWriter exportWriter;
+	
+	private ObjectReader importReader;
 	
 	
 	
-	public UserController(UserService userService, AddressService addressesService, ModelMapper modelMapper) {
+	public UserController(UserService userService, AddressService addressesService, UserImportService userImportService,
+			AddressLinks addressLinks, DtoMapper dtoMapper, ObjectMapper objectMapper) {
 		this.userService = userService;
 		this.addressesService = addressesService;
-		this.modelMapper = modelMapper;
+		this.userImportService = userImportService;
+		this.addressLinks = addressLinks;
+		this.dtoMapper = dtoMapper;
+		this.exportWriter = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+		this.importReader = objectMapper.readerFor(UserDetailsRequestModel.class);
 	}
 
-	@GetMapping(produces = { MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_JSON_VALUE })
-	public List<UserRest> getUsers(@RequestParam(value="page", defaultValue="0") int page,
-								   @RequestParam(value="limit", defaultValue="2") int limit) {
-		List<UserRest> returnValue = new ArrayList<>();
-		
-		if (page > 0) page= page - 1;
-		
-		List<UserDto> users = userService.getUsers(page, limit);
-		
-		for (UserDto userDto: users) {
-			UserRest userModel = new UserRest();
-			BeanUtils.copyProperties(userDto, userModel);
-			returnValue.add(userModel);
+	@GetMapping(produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE })
+	public ResponseEntity<List<UserRest>> getUsers(@RequestParam(value="page", defaultValue="0") int page,
+								   @RequestParam(value="limit", defaultValue="2") int limit,
+								   @RequestParam(value="cursor", required=false) String cursor) {
+		HttpHeaders headers = new HttpHeaders();
+		List<UserDto> users;
+		
+		// Keyset mode: an empty cursor starts from the beginning, NextCursor points at the following page
+		if (cursor != null) {
+			UserPageDto usersPage = userService.getUsers(cursor, limit);
+			users = usersPage.getUsers();
+			
+			if (usersPage.getNextCursor() != null) headers.add("NextCursor", usersPage.getNextCursor());
+		} else {
+			if (page > 0) page= page - 1;
+			
+			users = userService.getUsers(page, limit);
 		}
 		
-		return returnValue;
+		// One mapper call per page, so the mapping timer sees the page rather than each user
+		return new ResponseEntity<>(dtoMapper.toUserRest(users), headers, HttpStatus.OK);
+	}
+	
+	@GetMapping(path="/export", produces = MediaType.APPLICATION_JSON_VALUE)
+	public StreamingResponseBody exportUsers() {
+		return outputStream -> {
+			try (SequenceWriter sequenceWriter = exportWriter.writeValuesAsArray(outputStream)) {
+				writeUsers(sequenceWriter);
+			}
+		};
+	}
+	
+	@GetMapping(path="/export", produces = APPLICATION_NDJSON_VALUE)
+	public StreamingResponseBody exportUsersNdjson() {
+		return outputStream -> {
+			try (SequenceWriter sequenceWriter = exportWriter.withRootValueSeparator("\n").writeValues(outputStream)) {
+				writeUsers(sequenceWriter);
+			}
+			outputStream.write('\n');
+		};
 	}
 	
+	// A matching If-None-Match is answered from the cached version, before the user is loaded or mapped
 	@GetMapping(path="/{id}",
-				produces = { MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_JSON_VALUE })
-	public UserRest getUser(@PathVariable String id) {
+				produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE })
+	public UserRest getUser(@PathVariable String id, ServletWebRequest request) {
+		
+		if (isNotModified(id, request)) return null;
 		
 		UserDto userDto = userService.getUserByUserId(id);
 		
-		return modelMapper.map(userDto, UserRest.class);
+		return dtoMapper.toUserRest(userDto);
 	}
 	
 	@GetMapping(path="/{id}/addresses",
-			produces = { MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_JSON_VALUE })
-	public List<AddressesRest> getUserAddresses(@PathVariable String id) {
+			produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE })
+	public List<AddressesRest> getUserAddresses(@PathVariable String id, ServletWebRequest request) {
+		
+		if (isNotModified(id, request)) return null;
 		
 		List<AddressesRest> returnValue = new ArrayList<>();
 		List<AddressDto> addressesDto = addressesService.getAddresses(id);
 		
 		if (addressesDto != null && !addressesDto.isEmpty()) {
-			Type listType = new TypeToken<List<AddressesRest>>() {}.getType();
-			returnValue = modelMapper.map(addressesDto, listType);
+			returnValue = dtoMapper.toAddressesRest(addressesDto);
+			addressLinks.addLinks(returnValue, id);
 		}
 		
 		return returnValue;
 	}
 	
 	@GetMapping(path="/{userId}/addresses/{addressId}",
-			produces = { MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_JSON_VALUE })
-	public AddressesRest getUserAddress(@PathVariable String userId, @PathVariable String addressId) {
+			produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE })
+	public AddressesRest getUserAddress(@PathVariable String userId, @PathVariable String addressId, ServletWebRequest request) {
+		
+		if (isNotModified(userId, request)) return null;
 	
 		AddressDto addressDto = addressesService.getAddress(addressId);
 		
-		Link addressLink = linkTo(methodOn(UserController.class).getUserAddress(userId, addressId)).withSelfRel();
-		Link userLink = linkTo(methodOn(UserController.class).getUser(userId)).withRel("user");
-		Link addressesLink = linkTo(UserController.class).slash(userId).slash("addresses").withRel("addresses");
-		
-		AddressesRest addressesRest = modelMapper.map(addressDto, AddressesRest.class);
-		addressesRest.add(addressLink);
-		addressesRest.add(userLink);
-		addressesRest.add(addressesLink);
+		AddressesRest addressesRest = dtoMapper.toAddressesRest(addressDto);
+		addressLinks.addLinks(addressesRest, userId);
 		
 		return addressesRest;
 	}
 	
-	@PostMapping(consumes = { MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_JSON_VALUE },
-				 produces = { MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_JSON_VALUE })
+	@PostMapping(consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE },
+				 produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE })
 	public UserRest createUser(@RequestBody UserDetailsRequestModel userDetails) throws Exception {
 		
 		UserRest returnValue = new UserRest();
 		
 		if (userDetails.getFirstName().isEmpty()) throw new UserServiceException(ErrorMessages.MISSING_REQUIRED_FIELD.getErrorMessage());
 		
-		UserDto userDto = modelMapper.map(userDetails, UserDto.class);
+		UserDto userDto = dtoMapper.toUserDto(userDetails);
 		
 		UserDto createdUser = userService.createUser(userDto);
-		returnValue = modelMapper.map(createdUser, UserRest.class);
+		returnValue = dtoMapper.toUserRest(createdUser);
+		
+		return returnValue;
+	}
+	
+	// Accepts a JSON array or newline delimited objects; the body is read as the import proceeds
+	@PostMapping(path="/import",
+				 consumes = { MediaType.APPLICATION_JSON_VALUE, APPLICATION_NDJSON_VALUE },
+				 produces = MediaType.APPLICATION_JSON_VALUE)
+	public List<UserImportResultRest> importUsers(InputStream body) throws IOException {
+		List<UserImportResultRest> returnValue = new ArrayList<>();
+		
+		try (MappingIterator<UserDetailsRequestModel> users = importReader.readValues(body)) {
+			Iterator<UserDto> usersDto = StreamSupport.stream(Spliterators.spliteratorUnknownSize(users, Spliterator.ORDERED), false)
+					.map(dtoMapper::toUserDto)
+					.iterator();
+			
+			for (UserImportResultDto result : userImportService.importUsers(usersDto)) {
+				returnValue.add(dtoMapper.toUserImportResultRest(result));
+			}
+		}
 		
 		return returnValue;
 	}
 	
 	@PutMapping(path="/{id}",
-				consumes = { MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_JSON_VALUE },
-			 	produces = { MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_JSON_VALUE })
+				consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE },
+			 	produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE })
 	public UserRest updateUser(@PathVariable String id, @RequestBody UserDetailsRequestModel userDetails) {
 		
-		UserRest returnValue = new UserRest();
-		
-		UserDto userDto = new UserDto();
-		BeanUtils.copyProperties(userDetails, userDto);
+		UserDto userDto = dtoMapper.toUserDto(userDetails);
 		
 		UserDto updatedUser = userService.updateUser(id, userDto);
-		BeanUtils.copyProperties(updatedUser, returnValue);
 		
-		return returnValue;
+		return dtoMapper.toUserRest(updatedUser);
+	}
+	
+	// Only the fields present in the body are written; If-Match with the ETag from a GET guards against lost updates
+	@PatchMapping(path="/{id}",
+				  consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE },
+				  produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE })
+	public ResponseEntity<UserRest> patchUser(@PathVariable String id,
+											  @RequestHeader(value=HttpHeaders.IF_MATCH, required=false) String ifMatch,
+											  @RequestBody UserDetailsRequestModel userDetails) {
+		
+		UserDto userDto = dtoMapper.toUserDto(userDetails);
+		
+		UserDto patchedUser = userService.patchUser(id, userDto, parseETag(ifMatch));
+		
+		return ResponseEntity.ok().eTag(eTag(patchedUser.getVersion())).varyBy(HttpHeaders.ACCEPT).body(dtoMapper.toUserRest(patchedUser));
 	}
 	
 	@DeleteMapping(path="/{id}",
-				   produces = { MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_JSON_VALUE })	
+				   produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE })	
 	public OperationStatusModel deleteUser(@PathVariable String id) {
 		OperationStatusModel returnValue = new OperationStatusModel();
 		returnValue.setOperationName(RequestOperationName.DELETE.name());
@@ -161,8 +251,8 @@ public class UserController {
 	}
 	
 	@PostMapping(path="/password-reset-request",
-				 consumes = { MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_JSON_VALUE },
-			     produces = { MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_JSON_VALUE })
+				 consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE },
+			     produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE })
 	public OperationStatusModel requestReset(@RequestBody PasswordResetRequestModel passwordResetRequest) {
 		OperationStatusModel returnValue = new OperationStatusModel();
 		
@@ -179,7 +269,7 @@ public class UserController {
 	}
 	
 	@PostMapping(path="/password-reset",
-			 consumes = { MediaType.APPLICATION_XML_VALUE, MediaType.APPLICATION_JSON_VALUE })
+			 consumes = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE })
 	public OperationStatusModel resetPassword(@RequestBody PasswordResetModel passwordResetModel) {
 		OperationStatusModel returnValue = new OperationStatusModel();
 		
@@ -195,5 +285,43 @@ public class UserController {
 		return returnValue;
 	}
 	
+	// Addresses are only written together with their user, so the user version tags all three representations.
+	// JSON and XML share that ETag, so caches have to key on Accept too, for the 304 as well as the full response.
+	private boolean isNotModified(String userId, ServletWebRequest request) {
+		Long version = userService.getUserVersion(userId);
+
+		if (version != null) request.getResponse().addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+
+		return version != null && request.checkNotModified(eTag(version));
+	}
+	
+	private static String eTag(long version) {
+		return "\"" + version + "\"";
+	}
+	
+	// Null for a missing header or "*"; anything that is not one of our ETags can never match
+	private static Long parseETag(String ifMatch) {
+		if (ifMatch == null || ifMatch.trim().equals("*")) return null;
+		
+		String value = ifMatch.trim();
+		if (value.startsWith("W/")) value = value.substring(2);
+		if (value.length() > 1 && value.startsWith("\"") && value.endsWith("\"")) value = value.substring(1, value.length() - 1);
+		
+		try {
+			return Long.valueOf(value);
+		} catch (NumberFormatException e) {
+			throw new OptimisticLockingFailureException(ErrorMessages.RECORD_MODIFIED.getErrorMessage());
+		}
+	}
+	
+	private void writeUsers(SequenceWriter sequenceWriter) {
+		userService.streamUsers(userDto -> {
+			try {
+				sequenceWriter.write(dtoMapper.toUserRest(userDto));
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+	}
 	
 }
@@ -0,0 +1,27 @@
+package com.appsdeveloperblog.app.ws.ui.controllers;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Where UserController handlers run: on the container thread, on the bounded MVC async pool, or on virtual threads
+public enum UsersExecutionMode {
+	SERVLET, POOL, VIRTUAL;
+	
+	public boolean isOffloaded() {
+		return this != SERVLET;
+	}
+	
+	// Executors.newVirtualThreadPerTaskExecutor() is only there on Java 21+, and this project compiles for Java 8
+	public static ExecutorService newVirtualThreadExecutor() {
+		try {
+			Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService) factory.invoke(null);
+		} catch (NoSuchMethodException e) {
+			throw new IllegalStateException("usersExecutionMode=virtual needs Java 21 or newer, running on "
+					+ System.getProperty("java.version"));
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
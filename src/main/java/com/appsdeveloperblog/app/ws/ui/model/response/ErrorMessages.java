@@ -3,13 +3,21 @@ package com.appsdeveloperblog.app.ws.ui.model.response;
 public enum ErrorMessages {
 	
 	MISSING_REQUIRED_FIELD("Missing required field. Please check documentation for required fields."),
+	FIELD_TOO_LONG("Field value is longer than allowed. Please check documentation for field lengths."),
 	RECORD_ALREADY_EXISTS("Record already exists"),
 	INTERNAL_SERVER_ERROR("Internal server error"),
 	NO_RECORD_FOUND("Record with provided id is not found."),
 	AUTHENTICATION_FAILED("Authentication failed"),
+	COULD_NOT_CREATE_RECORD("Could not create record"),
 	COULD_NOT_UPDATE_RECORD("Could not update record"),
 	COULD_NOT_DELTEE_RECORD("Could not delete record"),
-	EMAIL_ADDRESS_NOT_VERIFIED("Email address could not be verified");
+	EMAIL_ADDRESS_NOT_VERIFIED("Email address could not be verified"),
+	SERVER_BUSY("Server is busy. Please try again later."),
+	INVALID_CURSOR("Provided cursor is not valid."),
+	INVALID_PAGE("Page must not be negative."),
+	INVALID_LIMIT("Limit must be at least 1."),
+	INVALID_CURSOR_LIMIT("Limit must be between 1 and 100 when paging by cursor."),
+	RECORD_MODIFIED("Record was modified by another request.");
 	
 	private String errorMessage;
 	
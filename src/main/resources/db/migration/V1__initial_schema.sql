@@ -0,0 +1,36 @@
+-- Schema as previously generated by hibernate.ddl-auto=update. Existing databases are baselined at this version.
+create sequence hibernate_sequence start with 1 increment by 1;
+
+create table users (
+	id bigint not null,
+	email varchar(120) not null,
+	email_verification_status boolean not null,
+	email_verification_token varchar(255),
+	encrypted_password varchar(255) not null,
+	first_name varchar(50) not null,
+	last_name varchar(50) not null,
+	user_id varchar(255) not null,
+	primary key (id)
+);
+
+create table addresses (
+	id bigint not null,
+	address_id varchar(30) not null,
+	city varchar(15) not null,
+	country varchar(15) not null,
+	postal_code varchar(7) not null,
+	street_name varchar(100) not null,
+	type varchar(10) not null,
+	users_id bigint,
+	primary key (id)
+);
+
+create table password_reset_tokens (
+	id bigint not null,
+	token varchar(255),
+	users_id bigint,
+	primary key (id)
+);
+
+alter table addresses add constraint FKr9ce5hb61hmpvm107ccip0irl foreign key (users_id) references users;
+alter table password_reset_tokens add constraint FK52orwg09uutvs35oup693qjae foreign key (users_id) references users;
@@ -0,0 +1,8 @@
+-- Fails on databases that already hold duplicates; those rows have to be resolved by hand first.
+alter table users add constraint uk_users_user_id unique (user_id);
+alter table users add constraint uk_users_email unique (email);
+alter table addresses add constraint uk_addresses_address_id unique (address_id);
+alter table password_reset_tokens add constraint uk_password_reset_tokens_token unique (token);
+
+create index ix_addresses_users_id on addresses (users_id);
+create index ix_password_reset_tokens_users_id on password_reset_tokens (users_id);
@@ -0,0 +1,6 @@
+-- Outstanding tokens predate the column and are swept on the next run; their users can request a new one.
+alter table password_reset_tokens add column expires_at timestamp;
+update password_reset_tokens set expires_at = current_timestamp;
+alter table password_reset_tokens alter column expires_at set not null;
+
+create index ix_password_reset_tokens_expires_at on password_reset_tokens (expires_at);
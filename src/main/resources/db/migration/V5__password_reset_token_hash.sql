@@ -0,0 +1,7 @@
+-- Outstanding tokens were stored in plain text and cannot be turned into digests; their users can request a new one.
+delete from password_reset_tokens;
+
+alter table password_reset_tokens drop constraint uk_password_reset_tokens_token;
+alter table password_reset_tokens drop column token;
+alter table password_reset_tokens add column token_hash varchar(43) not null;
+alter table password_reset_tokens add constraint uk_password_reset_tokens_token_hash unique (token_hash);
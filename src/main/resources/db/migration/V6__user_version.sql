@@ -0,0 +1 @@
+alter table users add column version bigint default 0 not null;
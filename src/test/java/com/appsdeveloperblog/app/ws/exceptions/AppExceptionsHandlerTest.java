@@ -0,0 +1,49 @@
+package com.appsdeveloperblog.app.ws.exceptions;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+
+import com.appsdeveloperblog.app.ws.ui.model.response.ErrorMessage;
+import com.appsdeveloperblog.app.ws.ui.model.response.ErrorMessages;
+
+class AppExceptionsHandlerTest {
+
+	AppExceptionsHandler appExceptionsHandler;
+
+	WebRequest request;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		appExceptionsHandler = new AppExceptionsHandler();
+		request = new ServletWebRequest(new MockHttpServletRequest());
+	}
+
+	@Test
+	final void testHandleInvalidRequestException() {
+		ResponseEntity<Object> response = appExceptionsHandler.handleInvalidRequestException(
+				new InvalidRequestException(ErrorMessages.INVALID_LIMIT.getErrorMessage()), request);
+
+		assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+		assertEquals(ErrorMessages.INVALID_LIMIT.getErrorMessage(), ((ErrorMessage) response.getBody()).getMessage());
+	}
+
+	@Test
+	final void testHandleRejectedExecutionException() {
+		ResponseEntity<Object> response = appExceptionsHandler.handleRejectedExecutionException(
+				new RejectedExecutionException(), request);
+
+		assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+		assertEquals(AppExceptionsHandler.RETRY_AFTER_SECONDS, response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+		assertEquals(ErrorMessages.SERVER_BUSY.getErrorMessage(), ((ErrorMessage) response.getBody()).getMessage());
+	}
+}
@@ -0,0 +1,87 @@
+package com.appsdeveloperblog.app.ws.io.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+// Two in-memory H2 databases stand in for the primary and the replica; each knows its own name
+class ReadReplicaRoutingDataSourceTest {
+	
+	ReadReplicaRoutingDataSource dataSource;
+	
+	@AfterEach
+	void tearDown() {
+		dataSource.close();
+	}
+
+	@Test
+	final void testReadOnlyTransaction_UsesReplica() {
+		setUp(true);
+		
+		assertEquals("replica", inTransaction(true));
+	}
+	
+	@Test
+	final void testReadWriteTransaction_UsesPrimary() {
+		setUp(true);
+		
+		assertEquals("primary", inTransaction(false));
+	}
+	
+	@Test
+	final void testNoTransaction_UsesPrimary() {
+		setUp(true);
+		
+		assertEquals("primary", node(new JdbcTemplate(dataSource)));
+	}
+	
+	@Test
+	final void testReadOnlyJoiningReadWriteTransaction_UsesPrimary() {
+		setUp(true);
+		TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+		
+		assertEquals("primary", transactionTemplate.execute(status -> inTransaction(true)));
+	}
+	
+	@Test
+	final void testWithoutReplica_ReadOnlyUsesPrimary() {
+		setUp(false);
+		
+		assertEquals("primary", inTransaction(true));
+	}
+	
+	private void setUp(boolean withReplica) {
+		dataSource = new ReadReplicaRoutingDataSource(pool("primary"), withReplica ? pool("replica") : null);
+	}
+	
+	private String inTransaction(boolean readOnly) {
+		TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+		transactionTemplate.setReadOnly(readOnly);
+		
+		return transactionTemplate.execute(status -> node(new JdbcTemplate(dataSource)));
+	}
+	
+	private static String node(JdbcTemplate jdbcTemplate) {
+		return jdbcTemplate.queryForObject("select name from node", String.class);
+	}
+	
+	private static HikariDataSource pool(String name) {
+		HikariDataSource pool = new HikariDataSource();
+		pool.setPoolName(name);
+		pool.setJdbcUrl("jdbc:h2:mem:" + name + "Routing;DB_CLOSE_DELAY=-1");
+		pool.setUsername("sa");
+		pool.setMaximumPoolSize(2);
+		
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(pool);
+		jdbcTemplate.execute("create table if not exists node (name varchar(10))");
+		jdbcTemplate.update("delete from node");
+		jdbcTemplate.update("insert into node (name) values (?)", name);
+		return pool;
+	}
+}
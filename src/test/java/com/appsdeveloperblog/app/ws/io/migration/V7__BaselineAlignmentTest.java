@@ -0,0 +1,83 @@
+package com.appsdeveloperblog.app.ws.io.migration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import org.flywaydb.core.api.migration.Context;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+// An in-memory H2 database stands in for a schema baselined from the old ddl-auto one-to-one mapping
+class V7__BaselineAlignmentTest {
+	
+	Connection connection;
+	
+	@BeforeEach
+	void setUp() throws SQLException {
+		connection = DriverManager.getConnection("jdbc:h2:mem:v7baseline", "sa", "");
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("create sequence hibernate_sequence");
+			statement.execute("create table password_reset_tokens (id bigint not null, token varchar(255), users_id bigint, "
+					+ "primary key (id), constraint UK_4weu98x7w0ab7nsj4uysli4u4 unique (users_id))");
+		}
+	}
+	
+	@AfterEach
+	void tearDown() throws SQLException {
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("drop all objects");
+		}
+		connection.close();
+	}
+
+	@Test
+	final void testMigrate_DropsUsersIdUniqueKey() throws Exception {
+		migrate();
+		
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("insert into password_reset_tokens (id, token, users_id) values (1, 'a', 1)");
+			statement.execute("insert into password_reset_tokens (id, token, users_id) values (2, 'b', 1)");
+		}
+	}
+	
+	@Test
+	final void testMigrate_DropsHibernateSequence() throws Exception {
+		migrate();
+		
+		try (Statement statement = connection.createStatement()) {
+			assertThrows(SQLException.class, () -> statement.executeQuery("select next value for hibernate_sequence"));
+		}
+	}
+	
+	@Test
+	final void testMigrate_KeepsOtherUniqueKeys() throws Exception {
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("alter table password_reset_tokens add constraint uk_password_reset_tokens_token unique (token)");
+		}
+		
+		migrate();
+		
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("insert into password_reset_tokens (id, token, users_id) values (1, 'a', 1)");
+			SQLException exception = assertThrows(SQLException.class,
+					() -> statement.execute("insert into password_reset_tokens (id, token, users_id) values (2, 'a', 2)"));
+			assertEquals("23505", exception.getSQLState());
+		}
+	}
+	
+	private void migrate() throws Exception {
+		Context context = mock(Context.class);
+		when(context.getConnection()).thenReturn(connection);
+		
+		new V7__BaselineAlignment().migrate(context);
+	}
+
+}
@@ -0,0 +1,168 @@
+package com.appsdeveloperblog.app.ws.io.repositories;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import com.appsdeveloperblog.app.ws.io.entity.AddressEntity;
+import com.appsdeveloperblog.app.ws.io.entity.UserEntity;
+import com.appsdeveloperblog.app.ws.shared.dto.UserDto;
+
+@DataJpaTest
+@TestPropertySource(properties = { "spring.jpa.properties.hibernate.generate_statistics=true", "spring.jpa.show-sql=false",
+		"spring.jpa.properties.hibernate.session_factory.statement_inspector=com.appsdeveloperblog.app.ws.io.repositories.UserRepositoryTest$LastStatement" })
+class UserRepositoryTest {
+	
+	static final int USERS = 20000;
+	static final int PAGE_SIZE = 100;
+
+	@Autowired
+	UserRepository userRepo;
+	
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+	
+	@Autowired
+	EntityManagerFactory entityManagerFactory;
+	
+	@Autowired
+	TestEntityManager entityManager;
+	
+	Statistics statistics;
+	
+	@BeforeEach
+	void setUp() throws Exception {
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@Test
+	final void testFindByIdGreaterThan_KeysetPagination() {
+		insertUsers();
+		
+		long lastId = 0;
+		int pages = USERS / PAGE_SIZE;
+		int visited = 0;
+		
+		for (int page = 0; page < pages; page++) {
+			long statements = statistics.getPrepareStatementCount();
+			long entityLoads = statistics.getEntityLoadCount();
+			List<UserDto> users = userRepo.findDtosByIdGreaterThan(lastId, PageRequest.of(0, PAGE_SIZE));
+			
+			assertEquals(1, statistics.getPrepareStatementCount() - statements, "one select and no count per page");
+			assertEquals(entityLoads, statistics.getEntityLoadCount(), "projected without loading entities");
+			assertEquals(PAGE_SIZE, users.size());
+			assertTrue(users.get(0).getId() > lastId);
+			
+			lastId = users.get(users.size() - 1).getId();
+			visited += users.size();
+		}
+		
+		assertEquals(USERS, visited);
+		assertNull(userRepo.findAllDtosBy(PageRequest.of(0, 1)).get(0).getEncryptedPassword());
+		assertTrue(userRepo.findDtosByIdGreaterThan(lastId, PageRequest.of(0, PAGE_SIZE)).isEmpty());
+	}
+	
+	// Keyset pages stay cheap at any depth only if the database seeks the primary key and reads it in order
+	@Test
+	final void testFindByIdGreaterThan_SeeksPrimaryKey() {
+		userRepo.findDtosByIdGreaterThan(USERS / 2, PageRequest.of(0, PAGE_SIZE));
+		
+		String plan = jdbcTemplate.queryForObject("explain " + LastStatement.sql, String.class, USERS / 2, PAGE_SIZE);
+		
+		assertTrue(plan.matches("(?s).*/\\* PUBLIC\\.PRIMARY_KEY_\\w+: ID > \\?1 \\*/.*"), plan);
+		assertTrue(plan.contains("/* index sorted */"), plan);
+	}
+	
+	@Test
+	final void testSave_UserWithTenAddresses() {
+		UserEntity userEntity = new UserEntity();
+		userEntity.setUserId("userId");
+		userEntity.setFirstName("First");
+		userEntity.setLastName("Last");
+		userEntity.setEmail("user@test.com");
+		userEntity.setEncryptedPassword("encPass");
+		
+		List<AddressEntity> addresses = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			AddressEntity addressEntity = new AddressEntity();
+			addressEntity.setAddressId("addressId" + i);
+			addressEntity.setCity("Vancouver");
+			addressEntity.setCountry("Canada");
+			addressEntity.setStreetName("123 Street name");
+			addressEntity.setPostalCode("123456");
+			addressEntity.setType("billing");
+			addressEntity.setUserDetails(userEntity);
+			addresses.add(addressEntity);
+		}
+		userEntity.setAddresses(addresses);
+		
+		long statements = statistics.getPrepareStatementCount();
+		
+		userRepo.save(userEntity);
+		entityManager.flush();
+		
+		// One sequence call per table, one user insert and one batch for all the addresses
+		assertEquals(4, statistics.getPrepareStatementCount() - statements);
+		assertEquals(10, jdbcTemplate.queryForObject("select count(*) from addresses where users_id = ?", Integer.class,
+				userEntity.getId()));
+	}
+	
+	@Test
+	final void testUpdateNames_SingleStatementWithVersionCheck() {
+		jdbcTemplate.update("insert into users (id, user_id, first_name, last_name, email, encrypted_password, "
+				+ "email_verification_status) values (1, 'userId1', 'First', 'Last', 'user1@test.com', 'encPass', false)");
+		
+		long statements = statistics.getPrepareStatementCount();
+		
+		assertEquals(1, userRepo.updateNames("userId1", 0L, "Patched", null));
+		assertEquals(1, statistics.getPrepareStatementCount() - statements, "no select before the update");
+		
+		assertEquals(0, userRepo.updateNames("userId1", 0L, "Stale", null));
+		assertEquals(1, userRepo.updateNames("userId1", null, null, "Forced"));
+		
+		assertEquals(2L, userRepo.findVersionByUserId("userId1"));
+		assertEquals("Patched Forced", jdbcTemplate.queryForObject("select first_name || ' ' || last_name from users where user_id = 'userId1'",
+				String.class));
+	}
+	
+	private void insertUsers() {
+		List<Object[]> rows = new ArrayList<>(USERS);
+		for (int i = 1; i <= USERS; i++) {
+			rows.add(new Object[] { i, "userId" + i, "First", "Last", "user" + i + "@test.com", "encPass", false });
+		}
+		jdbcTemplate.batchUpdate("insert into users (id, user_id, first_name, last_name, email, encrypted_password, "
+				+ "email_verification_status) values (?, ?, ?, ?, ?, ?, ?)", rows);
+	}
+	
+	// Keeps the last SQL Hibernate prepared, so its plan can be checked
+	public static class LastStatement implements StatementInspector {
+		
+		private static final long serialVersionUID = 1L;
+		
+		static volatile String sql;
+		
+		@Override
+		public String inspect(String sql) {
+			LastStatement.sql = sql;
+			return sql;
+		}
+	}
+
+}
@@ -0,0 +1,118 @@
+package com.appsdeveloperblog.app.ws.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.Collections;
+import java.util.concurrent.RejectedExecutionException;
+
+import javax.crypto.spec.SecretKeySpec;
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import com.appsdeveloperblog.app.ws.exceptions.AppExceptionsHandler;
+import com.appsdeveloperblog.app.ws.io.entity.UserEntity;
+import com.appsdeveloperblog.app.ws.io.repositories.UserRepository;
+import com.appsdeveloperblog.app.ws.service.impl.UserServiceImpl;
+
+class AuthenticationFilterTest {
+
+	@InjectMocks
+	UserServiceImpl userService;
+	
+	@Mock
+	UserRepository userRepo;
+	
+	@Mock
+	TokenSigningKey tokenSigningKey;
+	
+	BCryptPasswordEncoder bCryptPasswordEncoder = new BCryptPasswordEncoder(4);
+	
+	AuthenticationFilter authenticationFilter;
+	
+	UserEntity userEntity;
+	
+	@BeforeEach
+	void setUp() throws Exception {
+		MockitoAnnotations.initMocks(this);
+		
+		userEntity = new UserEntity();
+		userEntity.setId(1L);
+		userEntity.setUserId("74ryryY1FFa");
+		userEntity.setEmail("test@test.com");
+		userEntity.setEncryptedPassword(bCryptPasswordEncoder.encode("password"));
+		
+		when(tokenSigningKey.getKey()).thenReturn(new SecretKeySpec(new byte[64], TokenSigningKey.SIGNATURE_ALGORITHM.getJcaName()));
+		
+		DaoAuthenticationProvider authenticationProvider = new DaoAuthenticationProvider();
+		authenticationProvider.setUserDetailsService(userService);
+		authenticationProvider.setPasswordEncoder(bCryptPasswordEncoder);
+		
+		authenticationFilter = new AuthenticationFilter(
+				new ProviderManager(Collections.singletonList(authenticationProvider)), tokenSigningKey, new SecurityTimers());
+	}
+
+	@Test
+	final void testLogin_SingleUserLookup() throws Exception {
+		when(userRepo.findByEmail("test@test.com")).thenReturn(userEntity);
+		
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/users/login");
+		request.setContent("{\"email\":\"test@test.com\",\"password\":\"password\"}".getBytes());
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		
+		Authentication authResult = authenticationFilter.attemptAuthentication(request, response);
+		authenticationFilter.successfulAuthentication(request, response, new MockFilterChain(), authResult);
+		
+		assertEquals("74ryryY1FFa", response.getHeader("UserID"));
+		assertTrue(response.getHeader(SecurityConstants.HEADER_STRING).startsWith(SecurityConstants.TOKEN_PREFIX));
+		verify(userRepo, times(1)).findByEmail("test@test.com");
+		verifyNoMoreInteractions(userRepo);
+	}
+	
+	@Test
+	final void testLogin_PasswordHashingSaturated() throws Exception {
+		when(userRepo.findByEmail("test@test.com")).thenReturn(userEntity);
+		
+		DaoAuthenticationProvider authenticationProvider = new DaoAuthenticationProvider();
+		authenticationProvider.setUserDetailsService(userService);
+		authenticationProvider.setPasswordEncoder(new BCryptPasswordEncoder(4) {
+			@Override
+			public boolean matches(CharSequence rawPassword, String encodedPassword) {
+				throw new RejectedExecutionException();
+			}
+		});
+		AuthenticationFilter busyFilter = new AuthenticationFilter(
+				new ProviderManager(Collections.singletonList(authenticationProvider)), tokenSigningKey, new SecurityTimers());
+		busyFilter.setFilterProcessesUrl("/users/login");
+		
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/users/login");
+		request.setServletPath("/users/login");
+		request.setContent("{\"email\":\"test@test.com\",\"password\":\"password\"}".getBytes());
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		
+		busyFilter.doFilter(request, response, new MockFilterChain());
+		
+		assertEquals(HttpServletResponse.SC_SERVICE_UNAVAILABLE, response.getStatus());
+		assertEquals(AppExceptionsHandler.RETRY_AFTER_SECONDS, response.getHeader(HttpHeaders.RETRY_AFTER));
+		assertNull(response.getHeader(SecurityConstants.HEADER_STRING));
+	}
+
+}
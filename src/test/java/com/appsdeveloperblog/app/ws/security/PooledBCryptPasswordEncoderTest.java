@@ -0,0 +1,133 @@
+package com.appsdeveloperblog.app.ws.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class PooledBCryptPasswordEncoderTest {
+
+	PooledBCryptPasswordEncoder passwordEncoder;
+	
+	SimpleMeterRegistry meterRegistry;
+	
+	@BeforeEach
+	void setUp() throws Exception {
+		passwordEncoder = new PooledBCryptPasswordEncoder(5, 2, 10);
+		meterRegistry = new SimpleMeterRegistry();
+		passwordEncoder.bindTo(meterRegistry);
+	}
+	
+	@AfterEach
+	void tearDown() throws Exception {
+		passwordEncoder.destroy();
+	}
+
+	@Test
+	final void testEncodeAndMatches() {
+		String encodedPassword = passwordEncoder.encode("password");
+		
+		assertTrue(encodedPassword.startsWith("$2a$05$"));
+		assertTrue(passwordEncoder.matches("password", encodedPassword));
+		assertFalse(passwordEncoder.matches("wrong", encodedPassword));
+		assertEquals(1, meterRegistry.get("password.hash").tag("operation", "encode").timer().count());
+		assertEquals(2, meterRegistry.get("password.hash").tag("operation", "matches").timer().count());
+	}
+	
+	@Test
+	final void testUpgradeEncoding_LowerCost() {
+		String encodedPassword = new BCryptPasswordEncoder(4).encode("password");
+		
+		assertTrue(passwordEncoder.upgradeEncoding(encodedPassword));
+		assertFalse(passwordEncoder.upgradeEncoding(passwordEncoder.encode("password")));
+	}
+	
+	@Test
+	final void testEncodeAll_KeepsOrderWithoutRejecting() {
+		List<String> rawPasswords = new ArrayList<>();
+		for (int i = 0; i < 25; i++) {
+			rawPasswords.add("password" + i);
+		}
+		
+		List<String> encodedPasswords = passwordEncoder.encodeAll(rawPasswords);
+		
+		assertEquals(rawPasswords.size(), encodedPasswords.size());
+		for (int i = 0; i < rawPasswords.size(); i++) {
+			assertTrue(passwordEncoder.matches(rawPasswords.get(i), encodedPasswords.get(i)));
+		}
+		assertEquals(0, passwordEncoder.getRejectedCount());
+		assertEquals(25, meterRegistry.get("password.hash").tag("operation", "encode").timer().count());
+	}
+	
+	@Test
+	final void testEncode_SaturatedPoolRejects() throws Exception {
+		PooledBCryptPasswordEncoder saturatedEncoder = new PooledBCryptPasswordEncoder(4, 1, 1);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService callers = Executors.newFixedThreadPool(2);
+		
+		try {
+			// One hash holds the only worker and one waits in the queue
+			callers.submit(() -> saturatedEncoder.encode(new BlockingPassword(release)));
+			callers.submit(() -> saturatedEncoder.encode(new BlockingPassword(release)));
+			while (saturatedEncoder.getQueueDepth() < 1) Thread.sleep(10);
+			
+			assertThrows(RejectedExecutionException.class, () -> saturatedEncoder.encode("password"));
+			assertEquals(1, saturatedEncoder.getRejectedCount());
+		} finally {
+			release.countDown();
+			callers.shutdown();
+			saturatedEncoder.destroy();
+		}
+	}
+	
+	// BCrypt reads the password through toString, which waits until the test lets it go
+	private static final class BlockingPassword implements CharSequence {
+		
+		private final CountDownLatch release;
+		
+		BlockingPassword(CountDownLatch release) {
+			this.release = release;
+		}
+		
+		@Override
+		public String toString() {
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return "password";
+		}
+		
+		@Override
+		public int length() {
+			return toString().length();
+		}
+		
+		@Override
+		public char charAt(int index) {
+			return toString().charAt(index);
+		}
+		
+		@Override
+		public CharSequence subSequence(int start, int end) {
+			return toString().subSequence(start, end);
+		}
+	}
+
+}
@@ -0,0 +1,73 @@
+package com.appsdeveloperblog.app.ws.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.Date;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class TokenCacheTest {
+
+	TokenCache tokenCache;
+	
+	Date expiration;
+	
+	@BeforeEach
+	void setUp() throws Exception {
+		tokenCache = new TokenCache(2);
+		expiration = new Date(System.currentTimeMillis() + SecurityConstants.EXPIRATION_TIME);
+	}
+
+	@Test
+	final void testGetSubject() {
+		tokenCache.put("token", "test@test.com", expiration);
+		
+		assertEquals("test@test.com", tokenCache.getSubject("token"));
+		assertNull(tokenCache.getSubject("otherToken"));
+		assertEquals(1, tokenCache.getHitCount());
+		assertEquals(1, tokenCache.getMissCount());
+	}
+	
+	@Test
+	final void testGetSubject_ExpiredToken() {
+		tokenCache.put("token", "test@test.com", new Date(System.currentTimeMillis() - 1000));
+		
+		assertNull(tokenCache.getSubject("token"));
+		assertEquals(0, tokenCache.size());
+		assertEquals(1, tokenCache.getEvictionCount());
+	}
+	
+	@Test
+	final void testPut_EvictsWhenFull() {
+		tokenCache.put("token1", "first@test.com", expiration);
+		tokenCache.put("token2", "second@test.com", expiration);
+		tokenCache.put("token3", "third@test.com", expiration);
+		
+		assertEquals(2, tokenCache.size());
+		assertEquals(1, tokenCache.getEvictionCount());
+	}
+	
+	@Test
+	final void testClear_SigningKeyRotated() {
+		tokenCache.put("token", "test@test.com", expiration);
+		
+		tokenCache.clear();
+		
+		assertNull(tokenCache.getSubject("token"));
+		assertEquals(0, tokenCache.size());
+		assertEquals(0, tokenCache.getEvictionCount());
+	}
+	
+	@Test
+	final void testPut_Disabled() {
+		TokenCache disabledCache = new TokenCache(0);
+		
+		disabledCache.put("token", "test@test.com", expiration);
+		
+		assertNull(disabledCache.getSubject("token"));
+		assertEquals(0, disabledCache.size());
+	}
+
+}
@@ -0,0 +1,86 @@
+package com.appsdeveloperblog.app.ws.security;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import java.util.Date;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SignatureException;
+
+class TokenSigningKeyTest {
+
+	@Mock
+	AppProperties appProperties;
+	
+	@Mock
+	ApplicationEventPublisher eventPublisher;
+	
+	String tokenSecret = "tokensecret";
+	
+	@BeforeEach
+	void setUp() throws Exception {
+		MockitoAnnotations.initMocks(this);
+		
+		when(appProperties.getTokenSecret()).thenReturn(tokenSecret);
+		when(appProperties.getTokenSecretGracePeriod()).thenReturn(3600000L);
+	}
+
+	@Test
+	final void testParseClaims_TokenSignedWithSecretString() {
+		TokenSigningKey tokenSigningKey = new TokenSigningKey(appProperties, eventPublisher);
+		
+		String token = Jwts.builder()
+				.setSubject("test@test.com")
+				.setExpiration(new Date(System.currentTimeMillis() + SecurityConstants.EXPIRATION_TIME))
+				.signWith(SignatureAlgorithm.HS512, tokenSecret)
+				.compact();
+		
+		assertEquals("test@test.com", tokenSigningKey.parseClaims(token).getSubject());
+	}
+	
+	@Test
+	final void testParseClaims_PreviousKeyWithinGracePeriod() {
+		TokenSigningKey tokenSigningKey = new TokenSigningKey(appProperties, eventPublisher);
+		String oldToken = createToken(tokenSigningKey);
+		
+		tokenSigningKey.rotate("newtokensecret");
+		
+		assertEquals("test@test.com", tokenSigningKey.parseClaims(oldToken).getSubject());
+		assertTrue(tokenSigningKey.parseClaims(oldToken).getExpiration().getTime() 
+				<= System.currentTimeMillis() + 3600000L);
+		assertEquals("test@test.com", tokenSigningKey.parseClaims(createToken(tokenSigningKey)).getSubject());
+	}
+	
+	@Test
+	final void testParseClaims_PreviousKeyAfterGracePeriod() {
+		when(appProperties.getTokenSecretGracePeriod()).thenReturn(0L);
+		TokenSigningKey tokenSigningKey = new TokenSigningKey(appProperties, eventPublisher);
+		String oldToken = createToken(tokenSigningKey);
+		
+		tokenSigningKey.rotate("newtokensecret");
+		
+		assertThrows(SignatureException.class, 
+				() -> {
+					tokenSigningKey.parseClaims(oldToken);
+				});
+	}
+	
+	private String createToken(TokenSigningKey tokenSigningKey) {
+		return Jwts.builder()
+				.setSubject("test@test.com")
+				.setExpiration(new Date(System.currentTimeMillis() + SecurityConstants.EXPIRATION_TIME))
+				.signWith(TokenSigningKey.SIGNATURE_ALGORITHM, tokenSigningKey.getKey())
+				.compact();
+	}
+
+}
@@ -0,0 +1,110 @@
+package com.appsdeveloperblog.app.ws.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import com.appsdeveloperblog.app.ws.service.AddressService;
+import com.appsdeveloperblog.app.ws.service.UserService;
+import com.appsdeveloperblog.app.ws.shared.dto.AddressDto;
+import com.appsdeveloperblog.app.ws.shared.dto.UserDto;
+import com.appsdeveloperblog.app.ws.shared.mapper.DtoMapper;
+import com.appsdeveloperblog.app.ws.shared.utils.Utils;
+
+// Pins the number of SQL statements behind each address-returning endpoint
+@DataJpaTest
+@Import({ UserServiceImpl.class, PasswordResetQueue.class, AddressServiceImpl.class, Utils.class, DtoMapper.class })
+@TestPropertySource(properties = { "spring.jpa.properties.hibernate.generate_statistics=true", "spring.jpa.show-sql=false" })
+class AddressServiceImplTest {
+	
+	static final String USER_ID = "userId1";
+	static final int ADDRESSES = 5;
+
+	@Autowired
+	AddressService addressService;
+	
+	@Autowired
+	UserService userService;
+	
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+	
+	@Autowired
+	EntityManagerFactory entityManagerFactory;
+	
+	@Autowired
+	TestEntityManager entityManager;
+	
+	Statistics statistics;
+	
+	@BeforeEach
+	void setUp() throws Exception {
+		jdbcTemplate.update("insert into users (id, user_id, first_name, last_name, email, encrypted_password, "
+				+ "email_verification_status) values (1, ?, 'First', 'Last', 'user1@test.com', 'encPass', false)", USER_ID);
+		for (int i = 1; i <= ADDRESSES; i++) {
+			jdbcTemplate.update("insert into addresses (id, address_id, city, country, street_name, postal_code, type, "
+					+ "users_id) values (?, ?, 'Vancouver', 'Canada', '123 Street', 'ABC123', 'billing', 1)", i, "addressId" + i);
+		}
+		entityManager.clear();
+		
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@Test
+	final void testGetAddresses_OneStatement() {
+		long statements = statistics.getPrepareStatementCount();
+		
+		List<AddressDto> addresses = addressService.getAddresses(USER_ID);
+		
+		assertEquals(1, statistics.getPrepareStatementCount() - statements);
+		assertEquals(ADDRESSES, addresses.size());
+		assertEquals("addressId1", addresses.get(0).getAddressId());
+		assertEquals("Vancouver", addresses.get(0).getCity());
+		assertNull(addresses.get(0).getUserDetails());
+	}
+	
+	@Test
+	final void testGetAddresses_UnknownUser() {
+		long statements = statistics.getPrepareStatementCount();
+		
+		assertTrue(addressService.getAddresses("unknown").isEmpty());
+		assertEquals(1, statistics.getPrepareStatementCount() - statements);
+	}
+	
+	@Test
+	final void testGetAddress_OneStatement() {
+		long statements = statistics.getPrepareStatementCount();
+		
+		AddressDto address = addressService.getAddress("addressId3");
+		
+		assertEquals(1, statistics.getPrepareStatementCount() - statements);
+		assertEquals(3, address.getId());
+		assertEquals("ABC123", address.getPostalCode());
+	}
+	
+	@Test
+	final void testGetUserByUserId_OneStatement() {
+		long statements = statistics.getPrepareStatementCount();
+		
+		UserDto user = userService.getUserByUserId(USER_ID);
+		
+		assertEquals(1, statistics.getPrepareStatementCount() - statements);
+		assertEquals(ADDRESSES, user.getAddresses().size());
+	}
+
+}
@@ -0,0 +1,112 @@
+package com.appsdeveloperblog.app.ws.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.appsdeveloperblog.app.ws.io.entity.PasswordResetTokenEntity;
+import com.appsdeveloperblog.app.ws.io.entity.UserEntity;
+import com.appsdeveloperblog.app.ws.io.repositories.PasswordResetTokenRepository;
+import com.appsdeveloperblog.app.ws.io.repositories.UserRepository;
+import com.appsdeveloperblog.app.ws.security.AppProperties;
+import com.appsdeveloperblog.app.ws.service.PasswordResetRequestedEvent;
+import com.appsdeveloperblog.app.ws.shared.utils.Utils;
+
+class PasswordResetQueueTest {
+	
+	@Mock
+	UserRepository userRepo;
+	
+	@Mock
+	PasswordResetTokenRepository passwordResetTokenRepo;
+	
+	@Mock
+	Utils utils;
+	
+	@Mock
+	PlatformTransactionManager transactionManager;
+	
+	@Mock
+	AppProperties appProperties;
+	
+	@Mock
+	ApplicationEventPublisher eventPublisher;
+	
+	PasswordResetQueue passwordResetQueue;
+	
+	UserEntity userEntity;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		MockitoAnnotations.initMocks(this);
+		
+		when(appProperties.getPasswordResetQueueCapacity()).thenReturn(10);
+		when(appProperties.getPasswordResetRequestInterval()).thenReturn(60000L);
+		
+		userEntity = new UserEntity();
+		userEntity.setId(1L);
+		userEntity.setUserId("userId1");
+		userEntity.setEmail("test@test.com");
+		
+		passwordResetQueue = new PasswordResetQueue(userRepo, passwordResetTokenRepo, utils, transactionManager, appProperties,
+				eventPublisher);
+	}
+	
+	@AfterEach
+	void tearDown() {
+		passwordResetQueue.destroy();
+	}
+
+	@Test
+	final void testSubmit_CreatesTokenInBackground() {
+		when(userRepo.findByEmail("test@test.com")).thenReturn(userEntity);
+		when(utils.generatePasswordResetToken()).thenReturn("resetToken");
+		when(utils.hashPasswordResetToken("resetToken")).thenReturn("resetTokenHash");
+		
+		assertTrue(passwordResetQueue.submit("test@test.com"));
+		
+		ArgumentCaptor<PasswordResetTokenEntity> captor = ArgumentCaptor.forClass(PasswordResetTokenEntity.class);
+		verify(passwordResetTokenRepo, timeout(1000)).save(captor.capture());
+		verify(passwordResetTokenRepo).deleteByUserDetails(userEntity);
+		assertEquals("resetTokenHash", captor.getValue().getTokenHash());
+		assertTrue(captor.getValue().getExpiresAt().getTime() > System.currentTimeMillis());
+		
+		ArgumentCaptor<PasswordResetRequestedEvent> event = ArgumentCaptor.forClass(PasswordResetRequestedEvent.class);
+		verify(eventPublisher, timeout(1000)).publishEvent(event.capture());
+		assertEquals("resetToken", event.getValue().getToken());
+		assertEquals("test@test.com", event.getValue().getEmail());
+	}
+	
+	@Test
+	final void testSubmit_ThrottlesRepeatedEmail() {
+		assertTrue(passwordResetQueue.submit("test@test.com"));
+		assertFalse(passwordResetQueue.submit("TEST@test.com"));
+		assertTrue(passwordResetQueue.submit("other@test.com"));
+		
+		assertEquals(1, passwordResetQueue.getThrottledCount());
+	}
+	
+	@Test
+	final void testSubmit_UnknownEmail() {
+		assertTrue(passwordResetQueue.submit("unknown@test.com"));
+		
+		verify(userRepo, timeout(1000)).findByEmail("unknown@test.com");
+		verify(passwordResetTokenRepo, never()).save(any());
+		verify(eventPublisher, never()).publishEvent(any());
+	}
+
+}
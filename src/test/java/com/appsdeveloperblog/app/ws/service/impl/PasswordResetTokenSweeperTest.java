@@ -0,0 +1,47 @@
+package com.appsdeveloperblog.app.ws.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.sql.Timestamp;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+@DataJpaTest
+@Import(PasswordResetTokenSweeper.class)
+@TestPropertySource(properties = "passwordResetSweepChunkSize=100")
+class PasswordResetTokenSweeperTest {
+
+	@Autowired
+	PasswordResetTokenSweeper passwordResetTokenSweeper;
+	
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+	
+	@BeforeEach
+	void setUp() throws Exception {
+		jdbcTemplate.update("insert into users (id, user_id, first_name, last_name, email, encrypted_password, "
+				+ "email_verification_status) values (1, 'userId1', 'First', 'Last', 'user1@test.com', 'encPass', false)");
+		
+		Timestamp expired = new Timestamp(System.currentTimeMillis() - 60000);
+		Timestamp valid = new Timestamp(System.currentTimeMillis() + 3600000);
+		for (int i = 1; i <= 260; i++) {
+			jdbcTemplate.update("insert into password_reset_tokens (id, token_hash, expires_at, users_id) values (?, ?, ?, 1)",
+					i, "token" + i, i <= 250 ? expired : valid);
+		}
+	}
+
+	@Test
+	final void testSweep_DeletesExpiredTokensInChunks() {
+		assertEquals(250, passwordResetTokenSweeper.sweep());
+		assertEquals(250, passwordResetTokenSweeper.getSweptCount());
+		assertEquals(10, jdbcTemplate.queryForObject("select count(*) from password_reset_tokens", Integer.class));
+		assertEquals(0, passwordResetTokenSweeper.sweep());
+	}
+
+}
@@ -0,0 +1,191 @@
+package com.appsdeveloperblog.app.ws.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.appsdeveloperblog.app.ws.security.PooledBCryptPasswordEncoder;
+import com.appsdeveloperblog.app.ws.service.UserImportService;
+import com.appsdeveloperblog.app.ws.shared.dto.AddressDto;
+import com.appsdeveloperblog.app.ws.shared.dto.ImportStatus;
+import com.appsdeveloperblog.app.ws.shared.dto.UserDto;
+import com.appsdeveloperblog.app.ws.shared.dto.UserImportResultDto;
+import com.appsdeveloperblog.app.ws.shared.mapper.DtoMapper;
+import com.appsdeveloperblog.app.ws.shared.utils.Utils;
+import com.appsdeveloperblog.app.ws.ui.model.response.ErrorMessages;
+
+// Chunks commit on their own, so this test runs outside the usual rollback-only test transaction
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ UserImportServiceImpl.class, Utils.class, DtoMapper.class })
+@TestPropertySource(properties = { "spring.jpa.properties.hibernate.generate_statistics=true", "spring.jpa.show-sql=false",
+		"bcryptStrength=4", "importChunkSize=100" })
+class UserImportServiceImplTest {
+	
+	static final int USERS = 250;
+	static final String EXISTING_EMAIL = "user7@test.com";
+
+	@Autowired
+	UserImportService userImportService;
+	
+	@Autowired
+	PooledBCryptPasswordEncoder passwordEncoder;
+	
+	@SpyBean
+	Utils utils;
+	
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+	
+	@Autowired
+	EntityManagerFactory entityManagerFactory;
+	
+	Statistics statistics;
+	
+	@BeforeEach
+	void setUp() throws Exception {
+		jdbcTemplate.update("insert into users (id, user_id, first_name, last_name, email, encrypted_password, "
+				+ "email_verification_status) values (1000000, 'existingUserId', 'First', 'Last', ?, 'encPass', false)", EXISTING_EMAIL);
+		
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+	
+	@AfterEach
+	void tearDown() throws Exception {
+		jdbcTemplate.update("delete from addresses");
+		jdbcTemplate.update("delete from users");
+	}
+
+	@Test
+	final void testImportUsers() {
+		List<UserDto> users = new ArrayList<>();
+		for (int i = 0; i < USERS; i++) {
+			users.add(userDto("user" + i + "@test.com"));
+		}
+		users.get(20).setEmail("user10@test.com");
+		users.get(30).setPassword(null);
+		
+		List<UserImportResultDto> results = userImportService.importUsers(users.iterator());
+		
+		assertEquals(USERS, results.size());
+		for (int i = 0; i < USERS; i++) {
+			assertEquals(i, results.get(i).getIndex());
+		}
+		assertEquals(ImportStatus.DUPLICATE, results.get(7).getStatus());
+		assertEquals(ImportStatus.CREATED, results.get(10).getStatus());
+		assertEquals(ImportStatus.DUPLICATE, results.get(20).getStatus());
+		assertEquals(ImportStatus.INVALID, results.get(30).getStatus());
+		assertNull(results.get(30).getUserId());
+		
+		UserImportResultDto created = results.get(USERS - 1);
+		assertEquals(ImportStatus.CREATED, created.getStatus());
+		assertNotNull(created.getUserId());
+		
+		int createdCount = USERS - 3;
+		assertEquals(createdCount + 1, jdbcTemplate.queryForObject("select count(*) from users", Integer.class));
+		assertEquals(createdCount * 2, jdbcTemplate.queryForObject("select count(*) from addresses", Integer.class));
+		assertEquals(1, jdbcTemplate.queryForObject("select count(*) from addresses a join users u on a.users_id = u.id "
+				+ "where u.user_id = ? and a.city = 'Vancouver'", Integer.class, created.getUserId()));
+		
+		String encryptedPassword = jdbcTemplate.queryForObject("select encrypted_password from users where user_id = ?",
+				String.class, created.getUserId());
+		assertEquals(true, passwordEncoder.matches("password", encryptedPassword));
+		
+		// One duplicate email query per chunk of 100
+		assertEquals(3, statistics.getQueryExecutionCount());
+	}
+	
+	@Test
+	final void testImportUsers_InvalidAddress() {
+		UserDto longCity = userDto("i@j.com");
+		longCity.getAddresses().get(1).setCity("Saint-Jean-Baptiste");
+		UserDto missingType = userDto("k@l.com");
+		missingType.getAddresses().get(0).setType(null);
+		
+		List<UserImportResultDto> results = userImportService.importUsers(Arrays.asList(longCity, missingType).iterator());
+		
+		assertEquals(ImportStatus.INVALID, results.get(0).getStatus());
+		assertEquals(ErrorMessages.FIELD_TOO_LONG.getErrorMessage(), results.get(0).getMessage());
+		assertEquals(ImportStatus.INVALID, results.get(1).getStatus());
+		assertEquals(ErrorMessages.MISSING_REQUIRED_FIELD.getErrorMessage(), results.get(1).getMessage());
+		assertEquals(1, jdbcTemplate.queryForObject("select count(*) from users", Integer.class));
+	}
+	
+	// The email is taken between the duplicate check and the insert
+	@Test
+	final void testImportUsers_ConcurrentSignUp() {
+		doAnswer(invocation -> {
+			jdbcTemplate.update("insert into users (id, user_id, first_name, last_name, email, encrypted_password, "
+					+ "email_verification_status) values (1000001, 'concurrentUserId', 'First', 'Last', 'race@test.com', 'encPass', false)");
+			return invocation.callRealMethod();
+		}).doCallRealMethod().when(utils).generateUserId();
+		
+		List<UserImportResultDto> results = userImportService.importUsers(
+				Arrays.asList(userDto("race@test.com"), userDto("other@test.com")).iterator());
+		
+		assertEquals(ImportStatus.DUPLICATE, results.get(0).getStatus());
+		assertEquals(ImportStatus.CREATED, results.get(1).getStatus());
+	}
+	
+	@Test
+	final void testImportUsers_OtherConstraintFailure() {
+		doReturn("existingUserId").doCallRealMethod().when(utils).generateUserId();
+		
+		List<UserImportResultDto> results = userImportService.importUsers(
+				Arrays.asList(userDto("new@test.com"), userDto("other@test.com")).iterator());
+		
+		assertEquals(ImportStatus.FAILED, results.get(0).getStatus());
+		assertEquals(ErrorMessages.COULD_NOT_CREATE_RECORD.getErrorMessage(), results.get(0).getMessage());
+		assertEquals(ImportStatus.CREATED, results.get(1).getStatus());
+	}
+	
+	private static UserDto userDto(String email) {
+		UserDto userDto = new UserDto();
+		userDto.setFirstName("First");
+		userDto.setLastName("Last");
+		userDto.setEmail(email);
+		userDto.setPassword("password");
+		
+		List<AddressDto> addresses = new ArrayList<>();
+		addresses.add(addressDto("Vancouver"));
+		addresses.add(addressDto("Toronto"));
+		userDto.setAddresses(addresses);
+		
+		return userDto;
+	}
+	
+	private static AddressDto addressDto(String city) {
+		AddressDto addressDto = new AddressDto();
+		addressDto.setCity(city);
+		addressDto.setCountry("Canada");
+		addressDto.setStreetName("123 Street name");
+		addressDto.setPostalCode("123456");
+		addressDto.setType("billing");
+		
+		return addressDto;
+	}
+
+}
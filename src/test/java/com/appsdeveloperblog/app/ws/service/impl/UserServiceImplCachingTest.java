@@ -0,0 +1,167 @@
+package com.appsdeveloperblog.app.ws.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.cache.CacheType;
+import org.springframework.boot.test.autoconfigure.core.AutoConfigureCache;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.test.context.TestPropertySource;
+
+import com.appsdeveloperblog.app.ws.service.AddressService;
+import com.appsdeveloperblog.app.ws.service.UserService;
+import com.appsdeveloperblog.app.ws.shared.dto.UserDto;
+import com.appsdeveloperblog.app.ws.shared.mapper.DtoMapper;
+import com.appsdeveloperblog.app.ws.shared.utils.Utils;
+
+@DataJpaTest
+@AutoConfigureCache(cacheProvider = CacheType.CAFFEINE)
+@Import({ UserServiceImpl.class, PasswordResetQueue.class, AddressServiceImpl.class, Utils.class, DtoMapper.class })
+@TestPropertySource(properties = { "spring.jpa.properties.hibernate.generate_statistics=true", "spring.jpa.show-sql=false" })
+class UserServiceImplCachingTest {
+	
+	static final String USER_ID = "userId1";
+	static final String EMAIL = "user1@test.com";
+	static final String ADDRESS_ID = "addressId1";
+
+	@Autowired
+	UserService userService;
+	
+	@Autowired
+	AddressService addressService;
+	
+	@Autowired
+	CacheManager cacheManager;
+	
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+	
+	@Autowired
+	EntityManagerFactory entityManagerFactory;
+	
+	@Autowired
+	TestEntityManager entityManager;
+	
+	Statistics statistics;
+	
+	@BeforeEach
+	void setUp() throws Exception {
+		for (String cacheName : cacheManager.getCacheNames()) {
+			cacheManager.getCache(cacheName).clear();
+		}
+		
+		jdbcTemplate.update("insert into users (id, user_id, first_name, last_name, email, encrypted_password, "
+				+ "email_verification_status) values (1, ?, 'First', 'Last', ?, 'encPass', false)", USER_ID, EMAIL);
+		jdbcTemplate.update("insert into addresses (id, address_id, city, country, street_name, postal_code, type, "
+				+ "users_id) values (1, ?, 'Vancouver', 'Canada', '123 Street', 'ABC123', 'billing', 1)", ADDRESS_ID);
+		
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@Test
+	final void testCacheHits_IssueNoSql() {
+		UserDto user = userService.getUserByUserId(USER_ID);
+		userService.getUser(EMAIL);
+		addressService.getAddresses(USER_ID);
+		addressService.getAddress(ADDRESS_ID);
+		userService.getUserVersion(USER_ID);
+		entityManager.clear();
+		
+		long statements = statistics.getPrepareStatementCount();
+		
+		assertEquals(user.getFirstName(), userService.getUserByUserId(USER_ID).getFirstName());
+		assertEquals(1, userService.getUserByUserId(USER_ID).getAddresses().size());
+		assertEquals(USER_ID, userService.getUser(EMAIL).getUserId());
+		assertEquals(1, addressService.getAddresses(USER_ID).size());
+		assertEquals("Vancouver", addressService.getAddress(ADDRESS_ID).getCity());
+		assertEquals(0L, userService.getUserVersion(USER_ID));
+		
+		assertEquals(0, statistics.getPrepareStatementCount() - statements);
+	}
+	
+	// Every login reads the current hash, whichever node changed it
+	@Test
+	final void testLoadUserByUsername_NotCached() {
+		userService.loadUserByUsername(EMAIL);
+		entityManager.clear();
+		
+		long statements = statistics.getPrepareStatementCount();
+		
+		assertEquals("encPass", userService.loadUserByUsername(EMAIL).getPassword());
+		assertEquals(1, statistics.getPrepareStatementCount() - statements);
+	}
+	
+	@Test
+	final void testUpdateUser_EvictsCachedUser() {
+		userService.getUserByUserId(USER_ID);
+		userService.getUser(EMAIL);
+		
+		UserDto userDto = new UserDto();
+		userDto.setFirstName("Changed");
+		userDto.setLastName("Name");
+		userService.updateUser(USER_ID, userDto);
+		entityManager.flush();
+		entityManager.clear();
+		
+		assertEquals("Changed", userService.getUserByUserId(USER_ID).getFirstName());
+		assertEquals("Changed", userService.getUser(EMAIL).getFirstName());
+	}
+	
+	@Test
+	final void testPatchUser_EvictsCachedVersion() {
+		assertEquals(0L, userService.getUserVersion(USER_ID));
+		
+		UserDto userDto = new UserDto();
+		userDto.setFirstName("Changed");
+		userService.patchUser(USER_ID, userDto, 0L);
+		entityManager.clear();
+		
+		assertEquals(1L, userService.getUserVersion(USER_ID));
+		assertEquals("Changed", userService.getUserByUserId(USER_ID).getFirstName());
+	}
+	
+	@Test
+	final void testUpdatePassword_NextLoginSeesNewPassword() {
+		UserDetails userDetails = userService.loadUserByUsername(EMAIL);
+		
+		userService.updatePassword(userDetails, "newEncPass");
+		entityManager.flush();
+		entityManager.clear();
+		
+		assertEquals("newEncPass", userService.loadUserByUsername(EMAIL).getPassword());
+	}
+	
+	@Test
+	final void testDeleteUser_EvictsUserAndAddresses() {
+		userService.getUserByUserId(USER_ID);
+		userService.loadUserByUsername(EMAIL);
+		addressService.getAddresses(USER_ID);
+		assertNotNull(addressService.getAddress(ADDRESS_ID));
+		
+		userService.deleteUser(USER_ID);
+		entityManager.flush();
+		entityManager.clear();
+		
+		assertThrows(UsernameNotFoundException.class, () -> userService.getUserByUserId(USER_ID));
+		assertThrows(UsernameNotFoundException.class, () -> userService.loadUserByUsername(EMAIL));
+		assertTrue(addressService.getAddresses(USER_ID).isEmpty());
+		assertNull(addressService.getAddress(ADDRESS_ID));
+	}
+
+}
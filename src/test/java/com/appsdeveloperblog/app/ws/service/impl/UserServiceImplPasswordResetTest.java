@@ -0,0 +1,98 @@
+package com.appsdeveloperblog.app.ws.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.appsdeveloperblog.app.ws.service.PasswordResetRequestedEvent;
+import com.appsdeveloperblog.app.ws.service.UserService;
+import com.appsdeveloperblog.app.ws.shared.mapper.DtoMapper;
+import com.appsdeveloperblog.app.ws.shared.utils.Utils;
+
+// The token is created on the queue's worker in its own transaction, so this test runs outside the test transaction
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ UserServiceImpl.class, PasswordResetQueue.class, AddressServiceImpl.class, Utils.class, DtoMapper.class,
+		UserServiceImplPasswordResetTest.DeliveredTokens.class })
+@TestPropertySource(properties = { "spring.jpa.show-sql=false", "bcryptStrength=4" })
+class UserServiceImplPasswordResetTest {
+
+	static final String EMAIL = "user1@test.com";
+
+	@Autowired
+	UserService userService;
+
+	@Autowired
+	BlockingQueue<PasswordResetRequestedEvent> deliveredTokens;
+
+	@Autowired
+	BCryptPasswordEncoder bCryptPasswordEncoder;
+
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		jdbcTemplate.update("insert into users (id, user_id, first_name, last_name, email, encrypted_password, "
+				+ "email_verification_status) values (1, 'userId1', 'First', 'Last', ?, 'encPass', false)", EMAIL);
+	}
+
+	@AfterEach
+	void tearDown() throws Exception {
+		jdbcTemplate.update("delete from password_reset_tokens");
+		jdbcTemplate.update("delete from users");
+	}
+
+	@Test
+	final void testResetPassword_DeliveredTokenWorksOnce() throws Exception {
+		assertTrue(userService.requestPasswordReset(EMAIL));
+
+		PasswordResetRequestedEvent event = deliveredTokens.poll(5, TimeUnit.SECONDS);
+		assertNotNull(event, "no token delivered");
+		assertEquals(EMAIL, event.getEmail());
+		assertEquals("userId1", event.getUserId());
+
+		assertTrue(userService.resetPassword(event.getToken(), "newPassword"));
+		assertFalse(userService.resetPassword(event.getToken(), "otherPassword"));
+
+		String encryptedPassword = jdbcTemplate.queryForObject("select encrypted_password from users where id = 1", String.class);
+		assertTrue(bCryptPasswordEncoder.matches("newPassword", encryptedPassword));
+	}
+
+	// Stands in for the mail sender
+	@TestConfiguration
+	static class DeliveredTokens {
+
+		private final BlockingQueue<PasswordResetRequestedEvent> events = new LinkedBlockingQueue<>();
+
+		@Bean
+		BlockingQueue<PasswordResetRequestedEvent> deliveredTokens() {
+			return events;
+		}
+
+		@EventListener
+		public void deliver(PasswordResetRequestedEvent event) {
+			events.add(event);
+		}
+	}
+}
@@ -0,0 +1,116 @@
+package com.appsdeveloperblog.app.ws.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.PersistenceContext;
+
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.appsdeveloperblog.app.ws.io.entity.UserEntity;
+import com.appsdeveloperblog.app.ws.io.repositories.UserRepository;
+import com.appsdeveloperblog.app.ws.service.UserService;
+import com.appsdeveloperblog.app.ws.shared.mapper.DtoMapper;
+import com.appsdeveloperblog.app.ws.shared.utils.Utils;
+
+// The read paths have to open their own transactions, so this test runs outside the rollback-only test transaction
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ UserServiceImpl.class, PasswordResetQueue.class, AddressServiceImpl.class, Utils.class, DtoMapper.class })
+@TestPropertySource(properties = { "spring.jpa.properties.hibernate.generate_statistics=true", "spring.jpa.show-sql=false" })
+class UserServiceImplReadOnlyTest {
+	
+	static final String USER_ID = "userId1";
+	static final String EMAIL = "user1@test.com";
+	static final int ADDRESSES = 20;
+
+	@Autowired
+	UserService userService;
+	
+	@Autowired
+	UserRepository userRepo;
+	
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+	
+	@Autowired
+	PlatformTransactionManager transactionManager;
+	
+	@Autowired
+	EntityManagerFactory entityManagerFactory;
+	
+	@PersistenceContext
+	EntityManager entityManager;
+	
+	Statistics statistics;
+	
+	@BeforeEach
+	void setUp() throws Exception {
+		jdbcTemplate.update("insert into users (id, user_id, first_name, last_name, email, encrypted_password, "
+				+ "email_verification_status) values (1, ?, 'First', 'Last', ?, 'encPass', false)", USER_ID, EMAIL);
+		for (int i = 1; i <= ADDRESSES; i++) {
+			jdbcTemplate.update("insert into addresses (id, address_id, city, country, street_name, postal_code, type, "
+					+ "users_id) values (?, ?, 'Vancouver', 'Canada', '123 Street', 'ABC123', 'billing', 1)", i, "addressId" + i);
+		}
+		
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+	
+	@AfterEach
+	void tearDown() throws Exception {
+		jdbcTemplate.update("delete from addresses");
+		jdbcTemplate.update("delete from users");
+	}
+
+	// The cached reads and the login lookup stay on the primary in read-write transactions, so only the
+	// uncached pages are read-only
+	@Test
+	final void testReadPaths_NeverFlush() {
+		userService.getUsers(0, 10);
+		userService.getUsers(null, 10);
+		
+		assertEquals(0, statistics.getFlushCount());
+	}
+	
+	// A read-write transaction over the same load flushes, which is what the read paths avoid
+	@Test
+	final void testReadWriteTransaction_Flushes() {
+		new TransactionTemplate(transactionManager).execute(status -> userRepo.findWithAddressesByUserId(USER_ID));
+		
+		assertEquals(1, statistics.getFlushCount());
+	}
+	
+	// H2 ignores Connection.setReadOnly, so only the session side of the read-only hint is checked here
+	@Test
+	final void testReadOnlyTransaction_ManualFlushAndReadOnlyEntities() {
+		TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+		transactionTemplate.setReadOnly(true);
+		
+		transactionTemplate.executeWithoutResult(status -> {
+			Session session = entityManager.unwrap(Session.class);
+			UserEntity userEntity = userRepo.findWithAddressesByUserId(USER_ID);
+			
+			assertEquals(FlushMode.MANUAL, session.getHibernateFlushMode());
+			assertTrue(session.isReadOnly(userEntity));
+			assertTrue(session.isReadOnly(userEntity.getAddresses().get(0)));
+		});
+	}
+}
@@ -0,0 +1,154 @@
+package com.appsdeveloperblog.app.ws.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.cache.CacheType;
+import org.springframework.boot.test.autoconfigure.core.AutoConfigureCache;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.appsdeveloperblog.app.ws.io.entity.UserEntity;
+import com.appsdeveloperblog.app.ws.io.repositories.AddressRepository;
+import com.appsdeveloperblog.app.ws.io.repositories.UserRepository;
+import com.appsdeveloperblog.app.ws.service.AddressService;
+import com.appsdeveloperblog.app.ws.service.UserService;
+import com.appsdeveloperblog.app.ws.shared.dto.UserDto;
+import com.appsdeveloperblog.app.ws.shared.mapper.DtoMapper;
+import com.appsdeveloperblog.app.ws.shared.utils.Utils;
+
+// Read-only transactions go to the replica, so the repositories answer them with the state from before the write,
+// as a replica that has not caught up yet would
+@DataJpaTest
+@AutoConfigureCache(cacheProvider = CacheType.CAFFEINE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ UserServiceImpl.class, PasswordResetQueue.class, AddressServiceImpl.class, Utils.class, DtoMapper.class,
+		UserServiceImplReplicaLagTest.LaggingReplica.class })
+@TestPropertySource(properties = { "spring.jpa.show-sql=false", "bcryptStrength=4" })
+class UserServiceImplReplicaLagTest {
+	
+	static final String USER_ID = "userId1";
+	static final String EMAIL = "user1@test.com";
+	static final String ADDRESS_ID = "addressId1";
+
+	@Autowired
+	UserService userService;
+	
+	@Autowired
+	AddressService addressService;
+	
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+	
+	@BeforeEach
+	void setUp() throws Exception {
+		jdbcTemplate.update("insert into users (id, user_id, first_name, last_name, email, encrypted_password, "
+				+ "email_verification_status) values (1, ?, 'First', 'Last', ?, 'encPass', false)", USER_ID, EMAIL);
+		jdbcTemplate.update("insert into addresses (id, address_id, city, country, street_name, postal_code, type, "
+				+ "users_id) values (1, ?, 'Vancouver', 'Canada', '123 Street', 'ABC123', 'billing', 1)", ADDRESS_ID);
+	}
+	
+	@AfterEach
+	void tearDown() throws Exception {
+		jdbcTemplate.update("delete from addresses");
+		jdbcTemplate.update("delete from users");
+	}
+
+	@Test
+	final void testGetUserByUserId_AfterUpdate() {
+		userService.getUserByUserId(USER_ID);
+		
+		UserDto patch = new UserDto();
+		patch.setFirstName("Patched");
+		patch.setLastName("Name");
+		userService.updateUser(USER_ID, patch);
+		
+		UserDto cachedUser = userService.getUserByUserId(USER_ID);
+		
+		assertEquals("Patched", cachedUser.getFirstName());
+		assertEquals(userService.getUserVersion(USER_ID).longValue(), cachedUser.getVersion());
+		assertEquals("Patched", userService.getUser(EMAIL).getFirstName());
+	}
+	
+	@Test
+	final void testLoadUserByUsername_AfterPasswordChange() {
+		UserDetails user = userService.loadUserByUsername(EMAIL);
+		
+		userService.updatePassword(user, "newPass");
+		
+		assertEquals("newPass", userService.loadUserByUsername(EMAIL).getPassword());
+	}
+	
+	@Test
+	final void testGetAddresses() {
+		assertEquals(1, addressService.getAddresses(USER_ID).size());
+		assertNotNull(addressService.getAddress(ADDRESS_ID));
+	}
+	
+	private static UserEntity staleUser() {
+		UserEntity userEntity = new UserEntity();
+		userEntity.setId(1L);
+		userEntity.setUserId(USER_ID);
+		userEntity.setFirstName("First");
+		userEntity.setLastName("Last");
+		userEntity.setEmail(EMAIL);
+		userEntity.setEncryptedPassword("encPass");
+		userEntity.setAddresses(new ArrayList<>());
+		return userEntity;
+	}
+	
+	// Wraps the repositories so reads in a read-only transaction get the replica's stale answer
+	@TestConfiguration
+	static class LaggingReplica {
+		
+		@Bean
+		static BeanPostProcessor laggingReplicaRepositories() {
+			Map<String, Object> staleResults = new HashMap<>();
+			staleResults.put("findByEmail", staleUser());
+			staleResults.put("findWithAddressesByUserId", staleUser());
+			staleResults.put("findAllByUserId", Collections.emptyList());
+			staleResults.put("findDtoByAddressId", null);
+			
+			return new BeanPostProcessor() {
+				@Override
+				public Object postProcessAfterInitialization(Object bean, String beanName) {
+					if (!(bean instanceof UserRepository) && !(bean instanceof AddressRepository)) return bean;
+					
+					return Proxy.newProxyInstance(getClass().getClassLoader(), AopProxyUtils.proxiedUserInterfaces(bean),
+							(proxy, method, args) -> {
+								if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+										&& staleResults.containsKey(method.getName())) {
+									return staleResults.get(method.getName());
+								}
+								try {
+									return method.invoke(bean, args);
+								} catch (InvocationTargetException e) {
+									throw e.getTargetException();
+								}
+							});
+				}
+			};
+		}
+	}
+}
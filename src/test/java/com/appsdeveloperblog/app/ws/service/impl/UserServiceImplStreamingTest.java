@@ -0,0 +1,97 @@
+package com.appsdeveloperblog.app.ws.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import com.appsdeveloperblog.app.ws.shared.mapper.DtoMapper;
+import com.appsdeveloperblog.app.ws.shared.utils.Utils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+
+@DataJpaTest
+@Import({ UserServiceImpl.class, PasswordResetQueue.class, Utils.class, DtoMapper.class })
+@TestPropertySource(properties = "spring.jpa.show-sql=false")
+class UserServiceImplStreamingTest {
+	
+	static final int USERS = 50000;
+	static final int EARLY_SAMPLE = 5000;
+	static final int LATE_SAMPLE = 45000;
+	
+	@Autowired
+	UserServiceImpl userService;
+	
+	@Autowired
+	DtoMapper dtoMapper;
+	
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+	
+	@BeforeEach
+	void setUp() throws Exception {
+		List<Object[]> rows = new ArrayList<>(USERS);
+		for (int i = 1; i <= USERS; i++) {
+			rows.add(new Object[] { i, "userId" + i, "First", "Last", "user" + i + "@test.com", "encPass", false });
+		}
+		jdbcTemplate.batchUpdate("insert into users (id, user_id, first_name, last_name, email, encrypted_password, "
+				+ "email_verification_status) values (?, ?, ?, ?, ?, ?, ?)", rows);
+	}
+
+	@Test
+	final void testStreamUsers_ConstantHeap() throws IOException {
+		AtomicLong rows = new AtomicLong();
+		long[] usedHeap = new long[2];
+		
+		try (SequenceWriter sequenceWriter = new ObjectMapper().writer().writeValuesAsArray(new DiscardingOutputStream())) {
+			userService.streamUsers(userDto -> {
+				try {
+					sequenceWriter.write(dtoMapper.toUserRest(userDto));
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+				
+				long row = rows.incrementAndGet();
+				if (row == EARLY_SAMPLE) usedHeap[0] = usedHeapAfterGc();
+				if (row == LATE_SAMPLE) usedHeap[1] = usedHeapAfterGc();
+			});
+		}
+		
+		assertEquals(USERS, rows.get());
+		
+		long growth = usedHeap[1] - usedHeap[0];
+		
+		// Retaining 40,000 entities with their snapshots would take well over 8MB
+		assertTrue(growth < 8 * 1024 * 1024, "heap grew by " + growth / 1024 + "KB while streaming");
+	}
+	
+	private static long usedHeapAfterGc() {
+		Runtime runtime = Runtime.getRuntime();
+		for (int i = 0; i < 3; i++) System.gc();
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+	
+	private static final class DiscardingOutputStream extends OutputStream {
+		@Override
+		public void write(int b) {
+		}
+		
+		@Override
+		public void write(byte[] b, int off, int len) {
+		}
+	}
+
+}
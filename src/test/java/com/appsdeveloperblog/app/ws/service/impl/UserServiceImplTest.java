@@ -1,8 +1,13 @@
 package com.appsdeveloperblog.app.ws.service.impl;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -16,16 +21,27 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.modelmapper.ModelMapper;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
+import com.appsdeveloperblog.app.ws.exceptions.InvalidRequestException;
 import com.appsdeveloperblog.app.ws.exceptions.UserServiceException;
 import com.appsdeveloperblog.app.ws.io.entity.AddressEntity;
 import com.appsdeveloperblog.app.ws.io.entity.UserEntity;
+import com.appsdeveloperblog.app.ws.io.repositories.PasswordResetTokenRepository;
 import com.appsdeveloperblog.app.ws.io.repositories.UserRepository;
+import com.appsdeveloperblog.app.ws.security.UserPrincipal;
 import com.appsdeveloperblog.app.ws.shared.dto.AddressDto;
 import com.appsdeveloperblog.app.ws.shared.dto.UserDto;
+import com.appsdeveloperblog.app.ws.shared.dto.UserPageDto;
+import com.appsdeveloperblog.app.ws.shared.mapper.DtoMapper;
 import com.appsdeveloperblog.app.ws.shared.utils.Utils;
 
 import java.lang.reflect.Type;
@@ -45,6 +61,15 @@ class UserServiceImplTest {
 	@Mock
 	BCryptPasswordEncoder bCryptPasswordEncoder;
 	
+	@Spy
+	DtoMapper dtoMapper;
+	
+	@Mock
+	CacheManager cacheManager;
+	
+	@Mock
+	PasswordResetTokenRepository passwordResetTokenRepo;
+	
 	String userId = "74ryryY1FFa";
 	String encryptedPassword = "encPass";
 	
@@ -86,9 +111,8 @@ class UserServiceImplTest {
 	
 	@Test
 	final void testCreateUser() {
-		when(userRepo.findByEmail(Mockito.<String>any())).thenReturn(null);
-		when(utils.generateAddressId(30)).thenReturn("hhh123fs^kgeEE");
-		when(utils.generateUserId(11)).thenReturn(userId);
+		when(utils.generateAddressId()).thenReturn("hhh123fs^kgeEE");
+		when(utils.generateUserId()).thenReturn(userId);
 		when(bCryptPasswordEncoder.encode(Mockito.<String>any())).thenReturn(encryptedPassword);
 		when(userRepo.save(Mockito.<UserEntity>any())).thenReturn(userEntity);
 		
@@ -114,7 +138,8 @@ class UserServiceImplTest {
 	
 	@Test
 	final void testCreateUser_UserServiceException() {	
-		when(userRepo.findByEmail(Mockito.<String>any())).thenReturn(userEntity);
+		when(bCryptPasswordEncoder.encode(Mockito.<String>any())).thenReturn(encryptedPassword);
+		when(userRepo.save(Mockito.<UserEntity>any())).thenThrow(new DataIntegrityViolationException("uk_users_email"));
 		
 		UserDto userDto = new UserDto();
 		userDto.setId(1L);
@@ -132,6 +157,142 @@ class UserServiceImplTest {
 	}
 	
 	
+	@Test
+	final void testUpdatePassword() {
+		when(userRepo.findByEmail(Mockito.<String>any())).thenReturn(userEntity);
+		when(userRepo.save(Mockito.<UserEntity>any())).thenReturn(userEntity);
+		
+		UserDetails userDetails = userService.updatePassword(new UserPrincipal(userEntity), "newEncPass");
+		
+		assertEquals("newEncPass", userEntity.getEncryptedPassword());
+		assertEquals(userId, ((UserPrincipal) userDetails).getUserId());
+		verify(userRepo, times(1)).save(userEntity);
+	}
+	
+	
+	@Test
+	final void testPatchUser() {
+		when(userRepo.updateNames(userId, 3L, "Patched", null)).thenReturn(1);
+		userEntity.setFirstName("Patched");
+		userEntity.setVersion(4L);
+		when(userRepo.findWithAddressesByUserId(userId)).thenReturn(userEntity);
+		
+		UserDto userDto = new UserDto();
+		userDto.setFirstName("Patched");
+		
+		UserDto patchedUser = userService.patchUser(userId, userDto, 3L);
+		
+		assertEquals("Patched", patchedUser.getFirstName());
+		assertEquals(4L, patchedUser.getVersion());
+		verify(userRepo, times(0)).save(any());
+	}
+	
+	@Test
+	final void testPatchUser_StaleVersion() {
+		when(userRepo.updateNames(userId, 3L, "Patched", null)).thenReturn(0);
+		when(userRepo.findVersionByUserId(userId)).thenReturn(4L);
+		
+		UserDto userDto = new UserDto();
+		userDto.setFirstName("Patched");
+		
+		assertThrows(OptimisticLockingFailureException.class, 
+				() -> {
+					userService.patchUser(userId, userDto, 3L);
+				});
+	}
+	
+	@Test
+	final void testPatchUser_UnknownUser() {
+		when(userRepo.updateNames(userId, null, "Patched", null)).thenReturn(0);
+		when(userRepo.findVersionByUserId(userId)).thenReturn(null);
+		
+		UserDto userDto = new UserDto();
+		userDto.setFirstName("Patched");
+		
+		assertThrows(UserServiceException.class, 
+				() -> {
+					userService.patchUser(userId, userDto, null);
+				});
+	}
+	
+	@Test
+	final void testResetPassword() {
+		when(utils.hashPasswordResetToken("resetToken")).thenReturn("resetTokenHash");
+		when(passwordResetTokenRepo.findUserByValidTokenHash(eq("resetTokenHash"), any())).thenReturn(userEntity);
+		when(passwordResetTokenRepo.deleteValidByTokenHash(eq("resetTokenHash"), any())).thenReturn(1);
+		when(bCryptPasswordEncoder.encode("newPassword")).thenReturn("newEncPass");
+		
+		assertTrue(userService.resetPassword("resetToken", "newPassword"));
+		assertEquals("newEncPass", userEntity.getEncryptedPassword());
+	}
+	
+	@Test
+	final void testResetPassword_TokenAlreadyConsumed() {
+		when(utils.hashPasswordResetToken("resetToken")).thenReturn("resetTokenHash");
+		when(passwordResetTokenRepo.findUserByValidTokenHash(eq("resetTokenHash"), any())).thenReturn(userEntity);
+		when(passwordResetTokenRepo.deleteValidByTokenHash(eq("resetTokenHash"), any())).thenReturn(0);
+		when(bCryptPasswordEncoder.encode("newPassword")).thenReturn("newEncPass");
+		
+		assertFalse(userService.resetPassword("resetToken", "newPassword"));
+		assertEquals(encryptedPassword, userEntity.getEncryptedPassword());
+	}
+	
+	@Test
+	final void testResetPassword_InvalidToken() {
+		when(utils.hashPasswordResetToken("resetToken")).thenReturn("resetTokenHash");
+		
+		assertFalse(userService.resetPassword("resetToken", "newPassword"));
+		verify(passwordResetTokenRepo, times(0)).deleteValidByTokenHash(any(), any());
+	}
+	
+	@Test
+	final void testGetUsers_Cursor() {
+		List<UserDto> users = new ArrayList<>();
+		for (long id = 11; id <= 13; id++) {
+			users.add(new UserDto(id, "userId" + id, "First", "Last", "user" + id + "@test.com"));
+		}
+		when(userRepo.findDtosByIdGreaterThan(0L, PageRequest.of(0, 3))).thenReturn(users);
+		when(userRepo.findDtosByIdGreaterThan(12L, PageRequest.of(0, 3))).thenReturn(new ArrayList<>(users.subList(2, 3)));
+		
+		UserPageDto firstPage = userService.getUsers("", 2);
+		
+		assertEquals(2, firstPage.getUsers().size());
+		assertNotNull(firstPage.getNextCursor());
+		
+		UserPageDto lastPage = userService.getUsers(firstPage.getNextCursor(), 2);
+		
+		assertEquals(1, lastPage.getUsers().size());
+		assertEquals(13L, lastPage.getUsers().get(0).getId());
+		assertNull(lastPage.getNextCursor());
+	}
+	
+	@Test
+	final void testGetUsers_InvalidCursor() {
+		assertThrows(InvalidRequestException.class, 
+				() -> {
+					userService.getUsers("not a cursor", 2);
+				});
+	}
+	
+	@Test
+	final void testGetUsers_InvalidLimit() {
+		assertThrows(InvalidRequestException.class, () -> userService.getUsers("", 0));
+		assertThrows(InvalidRequestException.class, () -> userService.getUsers("", -1));
+		assertThrows(InvalidRequestException.class, () -> userService.getUsers("", UserServiceImpl.MAX_LIMIT + 1));
+		assertThrows(InvalidRequestException.class, () -> userService.getUsers(0, 0));
+		assertThrows(InvalidRequestException.class, () -> userService.getUsers(-1, 2));
+	}
+	
+	@Test
+	final void testGetUsers_OffsetLimitNotCapped() {
+		when(userRepo.findAllDtosBy(any(PageRequest.class))).thenReturn(new ArrayList<>());
+		
+		userService.getUsers(0, UserServiceImpl.MAX_LIMIT + 1);
+		
+		verify(userRepo).findAllDtosBy(PageRequest.of(0, UserServiceImpl.MAX_LIMIT + 1));
+	}
+	
+	
 	private List<AddressDto> getAddressesDto() {
 		AddressDto addressDto = new AddressDto();
 		addressDto.setType("shipping");
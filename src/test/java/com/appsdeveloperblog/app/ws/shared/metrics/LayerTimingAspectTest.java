@@ -0,0 +1,64 @@
+package com.appsdeveloperblog.app.ws.shared.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class LayerTimingAspectTest {
+
+	SimpleMeterRegistry registry;
+
+	LayerTimingAspect layerTimingAspect;
+
+	GreetingService greetingService;
+
+	@BeforeEach
+	void setUp() throws Exception {
+		registry = new SimpleMeterRegistry();
+		layerTimingAspect = new LayerTimingAspect();
+
+		AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new GreetingService());
+		proxyFactory.addAspect(layerTimingAspect);
+		greetingService = proxyFactory.getProxy();
+	}
+
+	@Test
+	final void testServiceCall_TimedByOutcome() {
+		layerTimingAspect.bindTo(registry);
+
+		greetingService.greet("First");
+		greetingService.greet("Second");
+		assertThrows(IllegalArgumentException.class, () -> greetingService.greet(null));
+
+		Timer success = registry.find(LayerTimingAspect.LAYER_TIMER)
+				.tags("layer", "service", "class", "GreetingService", "method", "greet", "outcome", "success").timer();
+		Timer error = registry.find(LayerTimingAspect.LAYER_TIMER)
+				.tags("outcome", "error", "exception", "IllegalArgumentException").timer();
+
+		assertEquals(2, success.count());
+		assertEquals(1, error.count());
+	}
+
+	@Test
+	final void testServiceCall_NotTimedBeforeRegistryIsBound() {
+		assertEquals("Hello First", greetingService.greet("First"));
+
+		assertNull(registry.find(LayerTimingAspect.LAYER_TIMER).timer());
+	}
+
+	@Service
+	static class GreetingService {
+		public String greet(String name) {
+			if (name == null) throw new IllegalArgumentException("name");
+			return "Hello " + name;
+		}
+	}
+}
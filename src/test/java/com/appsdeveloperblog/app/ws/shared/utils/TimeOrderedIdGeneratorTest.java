@@ -0,0 +1,74 @@
+package com.appsdeveloperblog.app.ws.shared.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class TimeOrderedIdGeneratorTest {
+	
+	static final int THREADS = 64;
+	static final int IDS_PER_THREAD = 10000;
+	
+	TimeOrderedIdGenerator generator = new TimeOrderedIdGenerator();
+
+	@Test
+	final void testEncode() {
+		assertEquals("0000000000000000000000", TimeOrderedIdGenerator.encode(0, 0));
+		assertEquals("000000000000000000000z", TimeOrderedIdGenerator.encode(0, 61));
+		assertEquals("0000000000000000000010", TimeOrderedIdGenerator.encode(0, 62));
+		assertEquals("00000000000LygHa16AHYL", TimeOrderedIdGenerator.encode(1, 5));
+		assertEquals("7n42DGM5Tflk9n8mt7Fhc7", TimeOrderedIdGenerator.encode(-1, -1));
+	}
+	
+	@Test
+	final void testGenerate_SortsByCreationTime() throws InterruptedException {
+		String earlier = generator.generate();
+		Thread.sleep(2);
+		String later = generator.generate();
+		
+		assertEquals(TimeOrderedIdGenerator.LENGTH, earlier.length());
+		assertTrue(earlier.matches("[0-9A-Za-z]+"));
+		assertTrue(earlier.compareTo(later) < 0, earlier + " should sort before " + later);
+	}
+	
+	@Test
+	final void testGenerate_UniqueAcrossThreads() throws Exception {
+		Set<String> ids = ConcurrentHashMap.newKeySet();
+		CountDownLatch start = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		
+		try {
+			List<Future<?>> futures = new ArrayList<>();
+			for (int i = 0; i < THREADS; i++) {
+				futures.add(executor.submit(() -> {
+					start.await();
+					for (int j = 0; j < IDS_PER_THREAD; j++) {
+						ids.add(generator.generate());
+					}
+					return null;
+				}));
+			}
+			start.countDown();
+			
+			for (Future<?> future : futures) {
+				future.get(30, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		
+		assertEquals(THREADS * IDS_PER_THREAD, ids.size());
+	}
+
+}
@@ -0,0 +1,94 @@
+package com.appsdeveloperblog.app.ws.ui.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Key;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.appsdeveloperblog.app.ws.security.TokenSigningKey;
+
+@SpringBootTest(properties = { "spring.datasource.url=jdbc:h2:mem:actuator", "spring.datasource.username=sa",
+		"spring.datasource.password=", "spring.jpa.show-sql=false", "bcryptStrength=4" })
+@AutoConfigureMockMvc
+class ActuatorEndpointsTest {
+
+	@Autowired
+	MockMvc mockMvc;
+
+	@Autowired
+	TokenSigningKey tokenSigningKey;
+
+	static final String ACTUATOR_CREDENTIALS = "Basic "
+			+ Base64.getEncoder().encodeToString("actuator:actuatorsecret".getBytes(StandardCharsets.UTF_8));
+
+	@Test
+	final void testPrometheus_AnyMediaType() throws Exception {
+		mockMvc.perform(get("/actuator/prometheus").accept(MediaType.ALL).header(HttpHeaders.AUTHORIZATION, ACTUATOR_CREDENTIALS))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_PLAIN));
+	}
+
+	@Test
+	final void testPrometheus_NoAcceptHeader() throws Exception {
+		mockMvc.perform(get("/actuator/prometheus").header(HttpHeaders.AUTHORIZATION, ACTUATOR_CREDENTIALS))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_PLAIN));
+	}
+
+	@Test
+	final void testPrometheus_Anonymous() throws Exception {
+		mockMvc.perform(get("/actuator/prometheus").accept(MediaType.ALL))
+				.andExpect(status().isUnauthorized());
+	}
+
+	@Test
+	final void testMetrics_WrongCredentials() throws Exception {
+		String credentials = "Basic " + Base64.getEncoder().encodeToString("actuator:wrong".getBytes(StandardCharsets.UTF_8));
+
+		mockMvc.perform(get("/actuator/metrics").header(HttpHeaders.AUTHORIZATION, credentials))
+				.andExpect(status().isUnauthorized());
+	}
+
+	@Test
+	final void testMetrics_ActuatorUser() throws Exception {
+		mockMvc.perform(get("/actuator/metrics").header(HttpHeaders.AUTHORIZATION, ACTUATOR_CREDENTIALS))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	final void testTokenSigningKey_Rotate() throws Exception {
+		Key previousKey = tokenSigningKey.getKey();
+
+		mockMvc.perform(post("/actuator/tokensigningkey").header(HttpHeaders.AUTHORIZATION, ACTUATOR_CREDENTIALS)
+				.contentType(MediaType.APPLICATION_JSON).content("{\"tokenSecret\": \"rotatedsecret\"}"))
+				.andExpect(status().isNoContent());
+
+		assertNotEquals(previousKey, tokenSigningKey.getKey());
+	}
+
+	@Test
+	final void testTokenSigningKey_Anonymous() throws Exception {
+		mockMvc.perform(post("/actuator/tokensigningkey")
+				.contentType(MediaType.APPLICATION_JSON).content("{\"tokenSecret\": \"rotatedsecret\"}"))
+				.andExpect(status().isUnauthorized());
+	}
+
+	@Test
+	final void testHealth_AnyMediaType() throws Exception {
+		mockMvc.perform(get("/actuator/health").accept(MediaType.ALL))
+				.andExpect(status().isOk());
+	}
+}
@@ -0,0 +1,83 @@
+package com.appsdeveloperblog.app.ws.ui.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
+import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.hateoas.IanaLinkRelations;
+import org.springframework.hateoas.Link;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.appsdeveloperblog.app.ws.ui.model.response.AddressesRest;
+
+class AddressLinksTest {
+	
+	String userId = "034hhGIbGNp20ZeBiQTBmy";
+	
+	AddressLinks addressLinks = new AddressLinks();
+	
+	@BeforeEach
+	void setUp() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/mobile-app-ws/users/" + userId + "/addresses");
+		request.setServerName("api.test.com");
+		request.setContextPath("/mobile-app-ws");
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+	}
+	
+	@AfterEach
+	void tearDown() {
+		RequestContextHolder.resetRequestAttributes();
+	}
+
+	@Test
+	final void testAddLinks_SameAsLinkBuilder() {
+		AddressesRest address = address("034hhGIaHSL2VYN2KhTzAj");
+		
+		addressLinks.addLinks(address, userId);
+		
+		assertLink(linkTo(methodOn(UserController.class).getUserAddress(userId, address.getAddressId(), null)).withSelfRel(),
+				address.getRequiredLink(IanaLinkRelations.SELF));
+		assertLink(linkTo(methodOn(UserController.class).getUser(userId, null)).withRel("user"),
+				address.getRequiredLink("user"));
+		assertLink(linkTo(methodOn(UserController.class).getUserAddresses(userId, null)).withRel("addresses"),
+				address.getRequiredLink("addresses"));
+	}
+	
+	@Test
+	final void testAddLinks_ListSharesUserLinks() {
+		List<AddressesRest> addresses = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			addresses.add(address("addressId" + i));
+		}
+		
+		addressLinks.addLinks(addresses, userId);
+		
+		for (AddressesRest address : addresses) {
+			Link self = linkTo(methodOn(UserController.class).getUserAddress(userId, address.getAddressId(), null)).withSelfRel();
+			assertLink(self, address.getRequiredLink(IanaLinkRelations.SELF));
+			assertSame(addresses.get(0).getRequiredLink("user"), address.getRequiredLink("user"));
+		}
+	}
+	
+	// Link.equals also compares the affordances the builder attaches, which HAL does not render
+	private static void assertLink(Link expected, Link actual) {
+		assertEquals(expected.getHref(), actual.getHref());
+		assertEquals(expected.getRel(), actual.getRel());
+	}
+	
+	private static AddressesRest address(String addressId) {
+		AddressesRest address = new AddressesRest();
+		address.setAddressId(addressId);
+		return address;
+	}
+
+}
@@ -0,0 +1,98 @@
+package com.appsdeveloperblog.app.ws.ui.controllers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import javax.servlet.DispatcherType;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.StaticApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+class OffloadingHandlerAdapterTest {
+	
+	ThreadPoolTaskExecutor executor;
+	
+	OffloadingHandlerAdapter adapter;
+	
+	@BeforeEach
+	void setUp() {
+		executor = new ThreadPoolTaskExecutor();
+		executor.setThreadNamePrefix("offloaded-");
+		executor.initialize();
+		
+		adapter = new OffloadingHandlerAdapter(OffloadedController.class);
+		adapter.setTaskExecutor(executor);
+		adapter.setApplicationContext(new StaticApplicationContext());
+		adapter.afterPropertiesSet();
+	}
+	
+	@AfterEach
+	void tearDown() {
+		executor.shutdown();
+	}
+
+	@Test
+	final void testHandle_RunsHandlerOnExecutor() throws Exception {
+		MockHttpServletRequest request = request();
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		
+		adapter.handle(request, response, new HandlerMethod(new OffloadedController(), "getThread", String.class));
+		
+		assertTrue(request.isAsyncStarted());
+		WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(request);
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!asyncManager.hasConcurrentResult() && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+		
+		// Second pass, as the async dispatch would do it, writes the result
+		request.setDispatcherType(DispatcherType.ASYNC);
+		request.setAsyncStarted(false);
+		adapter.handle(request, response, new HandlerMethod(new OffloadedController(), "getThread", String.class));
+		
+		assertTrue(response.getContentAsString().startsWith("id offloaded-"), response.getContentAsString());
+	}
+	
+	@Test
+	final void testHandle_OtherControllerRunsInline() throws Exception {
+		MockHttpServletRequest request = request();
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		
+		adapter.handle(request, response, new HandlerMethod(new InlineController(), "getThread", String.class));
+		
+		assertFalse(request.isAsyncStarted());
+		assertEquals("id " + Thread.currentThread().getName(), response.getContentAsString());
+	}
+	
+	private static MockHttpServletRequest request() {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users/id");
+		request.setAsyncSupported(true);
+		request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Collections.singletonMap("id", "id"));
+		return request;
+	}
+	
+	static class OffloadedController {
+		@ResponseBody
+		public String getThread(@PathVariable String id) {
+			return id + " " + Thread.currentThread().getName();
+		}
+	}
+	
+	static class InlineController extends OffloadedController {
+	}
+}
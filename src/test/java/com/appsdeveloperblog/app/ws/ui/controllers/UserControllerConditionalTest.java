@@ -0,0 +1,98 @@
+package com.appsdeveloperblog.app.ws.ui.controllers;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.Date;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.appsdeveloperblog.app.ws.security.SecurityConstants;
+import com.appsdeveloperblog.app.ws.security.TokenSigningKey;
+import com.appsdeveloperblog.app.ws.service.UserService;
+import com.appsdeveloperblog.app.ws.shared.dto.UserDto;
+
+import io.jsonwebtoken.Jwts;
+
+@SpringBootTest(properties = { "spring.datasource.url=jdbc:h2:mem:conditional", "spring.datasource.username=sa",
+		"spring.datasource.password=", "spring.jpa.show-sql=false", "bcryptStrength=4" })
+@AutoConfigureMockMvc
+class UserControllerConditionalTest {
+
+	@Autowired
+	MockMvc mockMvc;
+
+	@Autowired
+	UserService userService;
+
+	@Autowired
+	TokenSigningKey tokenSigningKey;
+
+	UserDto user;
+
+	String authorization;
+
+	@BeforeEach
+	void setUp() {
+		UserDto userDto = new UserDto();
+		userDto.setFirstName("Sergey");
+		userDto.setLastName("Kargopolov");
+		userDto.setEmail("conditional@test.com");
+		userDto.setPassword("12345678");
+		userDto.setAddresses(new ArrayList<>());
+		user = userService.createUser(userDto);
+
+		authorization = SecurityConstants.TOKEN_PREFIX + Jwts.builder()
+				.setSubject(user.getEmail())
+				.setExpiration(new Date(System.currentTimeMillis() + SecurityConstants.EXPIRATION_TIME))
+				.signWith(TokenSigningKey.SIGNATURE_ALGORITHM, tokenSigningKey.getKey())
+				.compact();
+	}
+
+	@AfterEach
+	void tearDown() {
+		userService.deleteUser(user.getUserId());
+	}
+
+	@Test
+	final void testGetUser_VariesByAccept() throws Exception {
+		mockMvc.perform(get("/users/" + user.getUserId()).accept(MediaType.APPLICATION_XML)
+				.header(HttpHeaders.AUTHORIZATION, authorization))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, eTag()))
+				.andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT)));
+	}
+
+	@Test
+	final void testGetUser_NotModifiedVariesByAccept() throws Exception {
+		mockMvc.perform(get("/users/" + user.getUserId()).accept(MediaType.APPLICATION_JSON)
+				.header(HttpHeaders.AUTHORIZATION, authorization).header(HttpHeaders.IF_NONE_MATCH, eTag()))
+				.andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT)));
+	}
+
+	@Test
+	final void testPatchUser_VariesByAccept() throws Exception {
+		mockMvc.perform(patch("/users/" + user.getUserId()).accept(MediaType.APPLICATION_JSON)
+				.header(HttpHeaders.AUTHORIZATION, authorization).header(HttpHeaders.IF_MATCH, eTag())
+				.contentType(MediaType.APPLICATION_JSON).content("{\"firstName\": \"Patched\"}"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT)));
+	}
+
+	private String eTag() {
+		return "\"" + user.getVersion() + "\"";
+	}
+}